@@ -0,0 +1,104 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.service.AnimeGroupCommitService;
+import academy.devdojo.springboot2.service.AnimeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Rows/sec of one save per row against the batched save of POST /animes/batch, and of concurrent saves with
+ * and without group commit. The in-memory database has no fsync to amortize, the group commit gains are far
+ * bigger on MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeBatchInsertBenchmark {
+    private static final int ROWS = 1000;
+    private static final int CLIENTS = 32;
+
+    private BenchmarkApplication application;
+    private AnimeService animeService;
+    private AnimeGroupCommitService groupCommitService;
+    private AnimeRepository animeRepository;
+    private List<AnimePostRequestBody> animes;
+    private AnimeBatchPostRequestBody batch;
+    private AnimePostRequestBody anime;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(new Class<?>[0],
+                "devdojo.animes.group-commit.enabled=true",
+                "devdojo.animes.group-commit.max-delay=2ms");
+        animeService = application.getBean(AnimeService.class);
+        groupCommitService = application.getBean(AnimeGroupCommitService.class);
+        animeRepository = application.getBean(AnimeRepository.class);
+        animes = IntStream.range(0, ROWS)
+                .mapToObj(i -> AnimePostRequestBody.builder().name("anime " + i).build())
+                .collect(Collectors.toList());
+        batch = AnimeBatchPostRequestBody.builder().animes(animes).build();
+        anime = animes.get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteAnimes() {
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Anime singleInsert() {
+        Anime saved = null;
+        for (AnimePostRequestBody animePostRequestBody : animes) {
+            saved = animeService.save(animePostRequestBody);
+        }
+        return saved;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Anime> batchInsert() {
+        return animeService.saveAll(batch);
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    public Anime concurrentSingleInsert() {
+        return animeService.save(anime);
+    }
+
+    @Benchmark
+    @Threads(CLIENTS)
+    public Anime concurrentGroupCommit() {
+        return groupCommitService.save(anime);
+    }
+}
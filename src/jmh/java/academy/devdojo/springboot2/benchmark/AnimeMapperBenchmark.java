@@ -0,0 +1,39 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.mapper.AnimeMapper;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeMapperBenchmark {
+    private final AnimeMapper animeMapper = new AnimeMapper();
+    private final AnimePostRequestBody animePostRequestBody = AnimePostRequestBody.builder().name("Hajime no Ippo").build();
+    private final AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder().id(1L).name("Hajime no Ippo").build();
+
+    @Benchmark
+    public Anime toAnimeFromPostRequestBody() {
+        return animeMapper.toAnime(animePostRequestBody);
+    }
+
+    @Benchmark
+    public Anime toAnimeFromPutRequestBody() {
+        return animeMapper.toAnime(animePutRequestBody);
+    }
+}
@@ -0,0 +1,60 @@
+package academy.devdojo.springboot2.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of an authenticated GET /animes/cursor with basic authentication (bcrypt on every request) and
+ * with a bearer token (HMAC).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final String URL = "/animes/cursor?size=1";
+
+    private BenchmarkApplication application;
+    private RestTemplate basic;
+    private RestTemplate bearer;
+    private HttpEntity<Void> bearerEntity;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(new Class<?>[0]);
+        basic = application.basicAuthentication().build();
+        bearer = application.restTemplateBuilder().build();
+        bearerEntity = application.bearerAuthentication();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public String basic() {
+        return basic.getForObject(URL, String.class);
+    }
+
+    @Benchmark
+    public String bearer() {
+        return bearer.exchange(URL, HttpMethod.GET, bearerEntity, String.class).getBody();
+    }
+}
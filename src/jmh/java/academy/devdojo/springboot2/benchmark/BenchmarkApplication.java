@@ -0,0 +1,79 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2.wrapper.TokenResponse;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The application started inside the benchmark's JVM on a free port with the h2 profile, for the benchmarks
+ * measuring it over HTTP. Requests are sent as devdojo with the in-memory users' password.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+    private final int port;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * @param sources added to the application's own configuration
+     * @param properties overriding the configuration, as key=value
+     */
+    static BenchmarkApplication start(Class<?>[] sources, String... properties) {
+        List<String> arguments = new ArrayList<>(Arrays.asList("server.port=0", "logging.level.root=warn",
+                "logging.level." + BenchmarkApplication.class.getPackage().getName() + "=info"));
+        arguments.addAll(Arrays.asList(properties));
+        return new BenchmarkApplication(new SpringApplicationBuilder(Springboot2EssentialsApplication.class)
+                .sources(sources)
+                .profiles("h2")
+                .run(arguments.stream().map(argument -> "--" + argument).toArray(String[]::new)));
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Connections are kept alive but cookies are not, so each basic request authenticates instead of reusing
+     * the session.
+     */
+    RestTemplateBuilder restTemplateBuilder() {
+        return new RestTemplateBuilder()
+                .rootUri("http://localhost:" + port)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                        .disableCookieManagement()
+                        .build()));
+    }
+
+    RestTemplateBuilder basicAuthentication() {
+        return restTemplateBuilder().basicAuthentication("devdojo", "douglas");
+    }
+
+    /**
+     * @return an entity carrying a bearer token freshly issued by POST /auth/token
+     */
+    HttpEntity<Void> bearerAuthentication() {
+        TokenResponse token = basicAuthentication().build().postForObject("/auth/token", null, TokenResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token.getToken());
+        return new HttpEntity<>(headers);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
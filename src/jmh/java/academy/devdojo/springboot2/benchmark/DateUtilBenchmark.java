@@ -0,0 +1,31 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+    private final DateUtil dateUtil = new DateUtil();
+    private final LocalDateTime localDateTime = LocalDateTime.of(2021, 1, 1, 12, 30, 15);
+
+    @Benchmark
+    public String formatLocalDateTimeToDatabaseStyle() {
+        return dateUtil.formatLocalDateTimeToDatabaseStyle(localDateTime);
+    }
+}
@@ -0,0 +1,46 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.domain.DevDojoUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DevDojoUserBenchmark {
+    private static final String AUTHORITIES = "ROLE_ADMIN, ROLE_USER";
+    private final DevDojoUser user = DevDojoUser.builder()
+            .userName("douglas")
+            .authorities(AUTHORITIES)
+            .build();
+
+    /**
+     * The path of every authenticated request once the user is cached.
+     */
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+
+    /**
+     * First call on a freshly loaded user, the authorities string is parsed.
+     */
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthoritiesFirstCall() {
+        return DevDojoUser.builder().userName("douglas").authorities(AUTHORITIES).build().getAuthorities();
+    }
+}
@@ -0,0 +1,67 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.wrapper.PageableResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Server side serialization of Page&lt;Anime&gt; and client side deserialization into PageableResponse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonPageBenchmark {
+    private static final TypeReference<PageableResponse<Anime>> PAGEABLE_RESPONSE_TYPE = new TypeReference<PageableResponse<Anime>>() {
+    };
+
+    @Param({"5", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Page<Anime> page;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<Anime> animes = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Anime.builder().id(id).name("Hajime no Ippo " + id).build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(animes, PageRequest.of(0, pageSize), 10_000);
+        json = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> deserializePageableResponse() throws Exception {
+        return objectMapper.readValue(json, PAGEABLE_RESPONSE_TYPE);
+    }
+}
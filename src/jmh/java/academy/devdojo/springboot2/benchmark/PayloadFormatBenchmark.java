@@ -0,0 +1,93 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.wrapper.PageableResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.log4j.Log4j2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode (serialize and optionally gzip) and decode into PageableResponse of a Page&lt;Anime&gt; for each
+ * wire format, the bytes on the wire are logged by the setup of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Log4j2
+public class PayloadFormatBenchmark {
+    private static final TypeReference<PageableResponse<Anime>> PAGEABLE_RESPONSE_TYPE = new TypeReference<PageableResponse<Anime>>() {
+    };
+
+    @Param({"json", "smile"})
+    private String format;
+    @Param({"false", "true"})
+    private boolean gzip;
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Anime> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = "smile".equals(format) ? builder.factory(new SmileFactory()).build() : builder.build();
+        List<Anime> animes = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Anime.builder().id(id).name("Hajime no Ippo " + id).version(id % 3).build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(animes, PageRequest.of(0, pageSize), 10_000);
+        encoded = encode();
+        log.info("{}, gzip {}, {} animes: {} bytes on the wire", format, gzip, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(page);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzipOutputStream, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> decode() throws IOException {
+        try (InputStream inputStream = gzip ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return objectMapper.readValue(inputStream, PAGEABLE_RESPONSE_TYPE);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import lombok.extern.log4j.Log4j2;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the blocking and the reactive find when every database access waits {@link #LATENCY} and Tomcat
+ * only has {@link #TOMCAT_THREADS} threads, with {@link #CLIENTS} concurrent clients. The peak number of threads
+ * excluding the benchmark's own is logged after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(ReactiveAnimeBenchmark.CLIENTS)
+@Log4j2
+public class ReactiveAnimeBenchmark {
+    static final int CLIENTS = 200;
+    private static final int TOMCAT_THREADS = 20;
+    private static final Duration LATENCY = Duration.ofMillis(50);
+    private static final String JMH_WORKER = "jmh-worker";
+
+    @Param({"blocking", "reactive"})
+    private String endpoint;
+
+    private BenchmarkApplication application;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private HttpEntity<Void> entity;
+    private String url;
+    private Thread threadSampler;
+    private volatile int peakThreads;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(new Class<?>[]{LatencyConfig.class},
+                "devdojo.reactive.enabled=true",
+                "devdojo.concurrency-limit.enabled=false",
+                "server.tomcat.threads.max=" + TOMCAT_THREADS);
+        application.getBean(AnimeRepository.class).save(Anime.builder().name("Hajime no Ippo").build());
+        httpClient = HttpClients.custom()
+                .setMaxConnTotal(CLIENTS)
+                .setMaxConnPerRoute(CLIENTS)
+                .build();
+        restTemplate = application.restTemplateBuilder()
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+        entity = application.bearerAuthentication();
+        url = "reactive".equals(endpoint) ? "/animes/reactive/find?name=Hajime no Ippo" : "/animes/find?name=Hajime no Ippo";
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        httpClient.close();
+        application.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startThreadSampler() {
+        peakThreads = 0;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threadSampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakThreads = Math.max(peakThreads, threadsExcludingWorkers(threads));
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "thread-sampler");
+        threadSampler.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopThreadSampler() throws InterruptedException {
+        threadSampler.interrupt();
+        threadSampler.join();
+        log.info("{}: peak threads excluding the benchmark's: {}", endpoint, peakThreads);
+    }
+
+    @Benchmark
+    public String find() {
+        return restTemplate.exchange(url, HttpMethod.GET, entity, String.class).getBody();
+    }
+
+    private static int threadsExcludingWorkers(ThreadMXBean threads) {
+        int count = 0;
+        for (ThreadInfo threadInfo : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (threadInfo != null && !threadInfo.getThreadName().contains(JMH_WORKER)) {
+                count++;
+            }
+        }
+        // the sampler itself
+        return count - 1;
+    }
+
+    /**
+     * Passed to the application as a source rather than annotated, so that no application started from the
+     * benchmark classpath picks it up through component scanning.
+     */
+    static class LatencyConfig {
+
+        @Bean
+        static BeanPostProcessor latencyInjector() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return new SleepingDataSource((DataSource) bean);
+                    }
+                    if (bean instanceof DatabaseClient) {
+                        return DatabaseClient.create(new DelayingConnectionFactory(((DatabaseClient) bean).getConnectionFactory()));
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Blocks the calling thread before handing out a connection, like a slow network round trip.
+     */
+    static class SleepingDataSource extends DelegatingDataSource {
+
+        SleepingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            sleep();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            sleep();
+            return super.getConnection(username, password);
+        }
+
+        private static void sleep() {
+            try {
+                Thread.sleep(LATENCY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Delays the connection with a timer instead of holding a thread.
+     */
+    static class DelayingConnectionFactory implements ConnectionFactory {
+        private final ConnectionFactory delegate;
+
+        DelayingConnectionFactory(ConnectionFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Publisher<? extends io.r2dbc.spi.Connection> create() {
+            return Mono.delay(LATENCY).then(Mono.from(delegate.create()));
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.exception.BadRequestExceptionDetails;
+import academy.devdojo.springboot2.handler.RestExceptionHandler;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.NoHandlerFoundException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the error bodies returned by RestExceptionHandler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestExceptionHandlerBenchmark {
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler(Duration.ofSeconds(1));
+    private final WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+    private final BadRequestException badRequestException = new BadRequestException("Anime not found");
+    private final NoHandlerFoundException noHandlerFoundException = new NoHandlerFoundException("GET", "/animes/x/y", null);
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new AnimePostRequestBody(), "animePostRequestBody");
+        bindingResult.addError(new FieldError("animePostRequestBody", "name", "The anime name can't be empty"));
+        MethodParameter parameter = new MethodParameter(
+                RestExceptionHandlerBenchmark.class.getDeclaredMethod("validated", AnimePostRequestBody.class), 0);
+        methodArgumentNotValidException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<BadRequestExceptionDetails> badRequestException() {
+        return restExceptionHandler.handlerBadRequestException(badRequestException);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> methodArgumentNotValidException() throws Exception {
+        return restExceptionHandler.handleException(methodArgumentNotValidException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> internalException() throws Exception {
+        return restExceptionHandler.handleException(noHandlerFoundException, webRequest);
+    }
+
+    @SuppressWarnings("unused")
+    private void validated(AnimePostRequestBody animePostRequestBody) {
+    }
+}
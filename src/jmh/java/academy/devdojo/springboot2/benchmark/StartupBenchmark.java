@@ -0,0 +1,101 @@
+package academy.devdojo.springboot2.benchmark;
+
+import academy.devdojo.springboot2.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2.util.ApplicationProcess;
+import lombok.extern.log4j.Log4j2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching a fresh JVM to the first successful GET /animes/cursor: default configuration, fast-startup
+ * profile, and fast-startup with the class-data-sharing archive built by mvn -Pfast-startup package -DskipTests.
+ * The heaviest beans reported by StartupReport in the last start are logged after each configuration. Runs
+ * against the in-memory H2 database, which needs its schema created: h2 comes after fast-startup in the active
+ * profiles, so its ddl-auto create-drop wins over none and the measured gains don't include skipping ddl-auto,
+ * as they do against MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Log4j2
+public class StartupBenchmark {
+    private static final Path FAST_STARTUP_DIRECTORY = Paths.get("target", "fast-startup");
+
+    @Param({"default", "fast-startup", "fast-startup-cds"})
+    private String configuration;
+
+    private File directory;
+    private String[] command;
+    private final List<String> heaviestBeans = new CopyOnWriteArrayList<>();
+    private ApplicationProcess application;
+
+    @Setup
+    public void setUp() {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+        String mainClass = Springboot2EssentialsApplication.class.getName();
+        switch (configuration) {
+            case "default":
+                command = new String[]{java, "-cp", classpath, mainClass, "--spring.profiles.active=h2",
+                        "--devdojo.startup.report.enabled=true"};
+                break;
+            case "fast-startup":
+                command = new String[]{java, "-cp", classpath, mainClass, "--spring.profiles.active=fast-startup,h2"};
+                break;
+            default:
+                File[] jars = FAST_STARTUP_DIRECTORY.toFile().listFiles((parent, name) -> name.endsWith("-app.jar"));
+                if (!Files.exists(FAST_STARTUP_DIRECTORY.resolve("app.jsa")) || jars == null || jars.length != 1) {
+                    throw new IllegalStateException("no CDS archive in " + FAST_STARTUP_DIRECTORY
+                            + ", run mvn -Pfast-startup package -DskipTests first");
+                }
+                directory = FAST_STARTUP_DIRECTORY.toFile();
+                command = new String[]{java, "-XX:SharedArchiveFile=app.jsa", "-jar", jars[0].getName(),
+                        "--spring.profiles.active=fast-startup,h2"};
+        }
+    }
+
+    @TearDown
+    public void logHeaviestBeans() {
+        heaviestBeans.forEach(bean -> log.info("{}: {}", configuration, bean));
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        application.close();
+    }
+
+    @Benchmark
+    public long timeToFirstRequest() throws IOException, InterruptedException {
+        heaviestBeans.clear();
+        application = ApplicationProcess.start(directory, line -> {
+            int report = line.indexOf("Startup bean ");
+            if (report >= 0) {
+                heaviestBeans.add(line.substring(report));
+            }
+        }, command);
+        return application.waitForFirstRequest("/animes/cursor?size=1");
+    }
+}
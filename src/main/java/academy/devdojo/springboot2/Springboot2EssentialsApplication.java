@@ -2,12 +2,19 @@ package academy.devdojo.springboot2;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class Springboot2EssentialsApplication {
+	/**
+	 * Startup steps kept for /actuator/startup and the startup report, enough for every bean of the context.
+	 */
+	private static final int STARTUP_STEPS = 4096;
 
 	public static void main(String[] args) {
-		SpringApplication.run(Springboot2EssentialsApplication.class, args);
+		SpringApplication application = new SpringApplication(Springboot2EssentialsApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
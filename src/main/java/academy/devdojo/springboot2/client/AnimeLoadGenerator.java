@@ -0,0 +1,244 @@
+package academy.devdojo.springboot2.client;
+
+import academy.devdojo.springboot2.client.LoadGeneratorOptions.Operation;
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.wrapper.TokenResponse;
+import lombok.extern.log4j.Log4j2;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Load generator: every worker thread picks the operation from the weighted mix and sends it over a pooled
+ * keep-alive HTTP client, latencies go to one HdrHistogram recorder per operation. Without --rate the workers run
+ * requests back to back (closed loop). With --rate each worker sends on a fixed schedule and the latency is
+ * measured from the time the request should have been sent, so a stall delaying the next requests is counted
+ * in their latencies instead of being hidden (coordinated omission).
+ */
+@Log4j2
+public class AnimeLoadGenerator {
+    private static final long HIGHEST_TRACKABLE_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadGeneratorOptions options;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final List<Long> seededIds = Collections.synchronizedList(new ArrayList<>());
+    private final ConcurrentLinkedDeque<Long> savedIds = new ConcurrentLinkedDeque<>();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+
+    public AnimeLoadGenerator(LoadGeneratorOptions options) {
+        this.options = options;
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(options.getConcurrency());
+        connectionManager.setDefaultMaxPerRoute(options.getConcurrency());
+        this.httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        this.restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(options.getBaseUrl()));
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_LATENCY_MICROS, 3));
+            totals.put(operation, new Histogram(HIGHEST_TRACKABLE_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+        this.weightedOperations = options.getMix().entrySet().stream()
+                .flatMap(weight -> IntStream.range(0, weight.getValue()).mapToObj(i -> weight.getKey()))
+                .toArray(Operation[]::new);
+    }
+
+    public void run() throws InterruptedException, IOException {
+        try {
+            authenticate();
+            seed();
+            log.info("Warming up for {}", options.getWarmUp());
+            runWorkers(options.getWarmUp().toMillis(), false);
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(LongAdder::reset);
+            log.info("Running {} workers for {} with mix {}, {}", options.getConcurrency(), options.getDuration(), options.getMix(),
+                    options.getRate() > 0 ? options.getRate() + " requests/s" : "closed loop");
+            runWorkers(options.getDuration().toMillis(), true);
+            report("total", totals, options.getDuration().toMillis());
+        } finally {
+            httpClient.close();
+        }
+    }
+
+    private void authenticate() {
+        headers.putAll(options.isSmile() ? SpringClient.createSmileHeader() : SpringClient.createJsonHeader());
+        if (!options.isTokenAuthentication()) {
+            headers.setBasicAuth(options.getUsername(), options.getPassword());
+            return;
+        }
+        HttpHeaders basic = new HttpHeaders();
+        basic.setBasicAuth(options.getUsername(), options.getPassword());
+        TokenResponse token = restTemplate.exchange("/auth/token", HttpMethod.POST, new HttpEntity<>(basic),
+                TokenResponse.class).getBody();
+        headers.setBearerAuth(token.getToken());
+    }
+
+    private void seed() {
+        List<AnimePostRequestBody> animes = IntStream.range(0, options.getSeed())
+                .mapToObj(i -> AnimePostRequestBody.builder().name("load test anime " + i).build())
+                .collect(Collectors.toList());
+        List<Anime> saved = restTemplate.exchange("/animes/batch", HttpMethod.POST,
+                new HttpEntity<>(AnimeBatchPostRequestBody.builder().animes(animes).build(), headers),
+                new ParameterizedTypeReference<List<Anime>>() {
+                }).getBody();
+        saved.forEach(anime -> seededIds.add(anime.getId()));
+        log.info("Seeded {} animes", seededIds.size());
+    }
+
+    private void runWorkers(long durationMillis, boolean reporting) throws InterruptedException {
+        if (durationMillis <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + durationMillis;
+        // time between two requests of a worker, 0 in closed loop
+        long intervalNanos = options.getRate() > 0
+                ? TimeUnit.SECONDS.toNanos(options.getConcurrency()) / options.getRate()
+                : 0;
+        long firstStart = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        CountDownLatch done = new CountDownLatch(options.getConcurrency());
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            // the workers are spread over the interval so the requests don't leave in bursts
+            long workerStart = firstStart + i * intervalNanos / options.getConcurrency();
+            workers.execute(() -> {
+                try {
+                    long intendedStart = workerStart;
+                    while (System.currentTimeMillis() < deadline) {
+                        Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+                        if (intervalNanos == 0) {
+                            execute(operation, System.nanoTime());
+                            continue;
+                        }
+                        waitUntil(intendedStart);
+                        execute(operation, intendedStart);
+                        intendedStart += intervalNanos;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long interval = options.getReportInterval().toMillis();
+        while (!done.await(interval, TimeUnit.MILLISECONDS)) {
+            if (reporting) {
+                Map<Operation, Histogram> intervalHistograms = new EnumMap<>(Operation.class);
+                recorders.forEach((operation, recorder) -> {
+                    Histogram histogram = recorder.getIntervalHistogram();
+                    totals.get(operation).add(histogram);
+                    intervalHistograms.put(operation, histogram);
+                });
+                report("interval", intervalHistograms, interval);
+            }
+        }
+        if (reporting) {
+            recorders.forEach((operation, recorder) -> totals.get(operation).add(recorder.getIntervalHistogram()));
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * A worker behind its schedule doesn't wait, it catches up by sending the late requests back to back.
+     */
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * @param start when the request was sent in closed loop, when it should have been sent with a rate
+     */
+    private void execute(Operation operation, long start) {
+        try {
+            switch (operation) {
+                case LIST:
+                    restTemplate.exchange("/animes?page={page}&size=5", HttpMethod.GET, new HttpEntity<>(headers), byte[].class,
+                            ThreadLocalRandom.current().nextInt(Math.max(1, seededIds.size() / 5)));
+                    break;
+                case FIND:
+                    restTemplate.exchange("/animes/find?name={name}", HttpMethod.GET, new HttpEntity<>(headers), byte[].class,
+                            "load test anime " + ThreadLocalRandom.current().nextInt(Math.max(1, options.getSeed())));
+                    break;
+                case FIND_BY_ID:
+                    restTemplate.exchange("/animes/{id}", HttpMethod.GET, new HttpEntity<>(headers), byte[].class, randomSeededId());
+                    break;
+                case SAVE:
+                    Anime saved = restTemplate.exchange("/animes", HttpMethod.POST, new HttpEntity<>(
+                            AnimePostRequestBody.builder().name("load test save").build(), headers), Anime.class).getBody();
+                    savedIds.add(saved.getId());
+                    break;
+                case REPLACE:
+                    restTemplate.exchange("/animes", HttpMethod.PUT, new HttpEntity<>(AnimePutRequestBody.builder()
+                            .id(randomSeededId()).name("load test replace").build(), headers), byte[].class);
+                    break;
+                case DELETE:
+                    Long id = savedIds.pollFirst();
+                    if (id == null) {
+                        return;
+                    }
+                    restTemplate.exchange("/animes/admin/{id}", HttpMethod.DELETE, new HttpEntity<>(headers), Void.class, id);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+            recorders.get(operation).recordValue(Math.min(HIGHEST_TRACKABLE_LATENCY_MICROS,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+        } catch (RuntimeException e) {
+            // an error response, or a failure of the generator itself: either way the worker goes on
+            errors.get(operation).increment();
+        }
+    }
+
+    private long randomSeededId() {
+        return seededIds.get(ThreadLocalRandom.current().nextInt(seededIds.size()));
+    }
+
+    private void report(String title, Map<Operation, Histogram> histograms, long elapsedMillis) {
+        StringBuilder report = new StringBuilder(String.format("%n%-8s %-10s %9s %9s %7s %9s %9s %9s %9s %9s",
+                title, "operation", "requests", "req/s", "errors", "p50(ms)", "p95(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        histograms.forEach((operation, histogram) -> report.append(String.format("%n%-8s %-10s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                "", operation, histogram.getTotalCount(), histogram.getTotalCount() * 1000d / elapsedMillis,
+                errors.get(operation).sum(), millis(histogram, 50), millis(histogram, 95), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1000d)));
+        log.info(report);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000d;
+    }
+}
@@ -0,0 +1,125 @@
+package academy.devdojo.springboot2.client;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Options of the load generator, read from --name=value arguments:
+ * <pre>
+ * --base-url=http://localhost:8080   --concurrency=16   --duration=60s   --warm-up=10s   --report-interval=5s
+ * --mix=list:30,find:15,findById:35,save:10,replace:5,delete:5   --seed=200   --rate=0
+ * --username=douglas   --password=douglas   --auth=token|basic   --format=json|smile
+ * </pre>
+ * Responses are requested with Accept-Encoding: gzip, the HTTP client decompresses them.
+ * <p>
+ * --rate is the total number of requests per second the workers are scheduled to send. With the default 0 the
+ * workers send back to back and wait for each response, a server stall then holds back the requests that would
+ * have been sent meanwhile and the percentiles look better than what clients arriving at a steady rate see.
+ * Use a rate below the throughput of the closed loop to measure latencies, and enough workers to keep up with it.
+ */
+@Getter
+public class LoadGeneratorOptions {
+    private String baseUrl = "http://localhost:8080";
+    private int concurrency = 16;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmUp = Duration.ofSeconds(10);
+    private Duration reportInterval = Duration.ofSeconds(5);
+    private final Map<Operation, Integer> mix = parseMix("list:30,find:15,findById:35,save:10,replace:5,delete:5");
+    private int seed = 200;
+    private int rate = 0;
+    private String username = "douglas";
+    private String password = "douglas";
+    private boolean tokenAuthentication = true;
+    private boolean smile = false;
+
+    public enum Operation {
+        LIST, FIND, FIND_BY_ID, SAVE, REPLACE, DELETE
+    }
+
+    public static LoadGeneratorOptions parse(String[] args) {
+        LoadGeneratorOptions options = new LoadGeneratorOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument " + arg + ", use --name=value");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url":
+                    options.baseUrl = value;
+                    break;
+                case "concurrency":
+                    options.concurrency = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    options.duration = parseDuration(value);
+                    break;
+                case "warm-up":
+                    options.warmUp = parseDuration(value);
+                    break;
+                case "report-interval":
+                    options.reportInterval = parseDuration(value);
+                    break;
+                case "mix":
+                    options.mix.clear();
+                    options.mix.putAll(parseMix(value));
+                    break;
+                case "seed":
+                    options.seed = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    options.rate = Integer.parseInt(value);
+                    break;
+                case "username":
+                    options.username = value;
+                    break;
+                case "password":
+                    options.password = value;
+                    break;
+                case "auth":
+                    options.tokenAuthentication = !"basic".equalsIgnoreCase(value);
+                    break;
+                case "format":
+                    options.smile = "smile".equalsIgnoreCase(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.seed < 1 && (options.weight(Operation.FIND_BY_ID) > 0 || options.weight(Operation.REPLACE) > 0)) {
+            throw new IllegalArgumentException("--seed must be at least 1 when the mix has findById or replace, " +
+                    "they pick one of the seeded animes");
+        }
+        return options;
+    }
+
+    private int weight(Operation operation) {
+        return mix.getOrDefault(operation, 0);
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] weight = entry.trim().split(":");
+            String operation = weight[0].replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase();
+            mix.put(Operation.valueOf(operation), Integer.parseInt(weight[1]));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,55 @@
+package academy.devdojo.springboot2.config;
+
+import academy.devdojo.springboot2.service.AnimeTotalsService;
+import academy.devdojo.springboot2.service.DevDojoUserDetailsService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The caches are Caffeine caches declared in application.yml (spring.cache), their hit, miss and
+ * eviction counters are exported by actuator under the cache.* metrics. The cache advice wraps the transaction
+ * advice, whose order is the lowest precedence: evictions and puts happen once the transaction committed, so a
+ * concurrent read can't cache the row being replaced and a failed commit leaves nothing in the cache.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CachingConfig {
+
+    /**
+     * The users cache has its own spec: it holds fewer entries and must expire sooner than the anime cache,
+     * so password and authority changes are picked up even if nobody evicts the user.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(
+            @Value("${devdojo.security.user-cache.spec:maximumSize=1000,expireAfterWrite=5m,recordStats}") String spec) {
+        return cacheManager -> cacheManager.registerCustomCache(DevDojoUserDetailsService.USER_CACHE,
+                Caffeine.from(spec).build());
+    }
+
+    /**
+     * User names that are not in the database, so unknown users don't run a query on every request. The TTL is
+     * short: a user created on another instance is refused until it expires.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> unknownUserCacheCustomizer(
+            @Value("${devdojo.security.unknown-user-cache.spec:maximumSize=10000,expireAfterWrite=30s,recordStats}") String spec) {
+        return cacheManager -> cacheManager.registerCustomCache(DevDojoUserDetailsService.UNKNOWN_USER_CACHE,
+                Caffeine.from(spec).build());
+    }
+
+    /**
+     * A single entry, the TTL bounds how stale the total gets when animes change on other instances.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> animeTotalsCacheCustomizer(
+            @Value("${devdojo.animes.totals.cache-spec:maximumSize=1,expireAfterWrite=30s,recordStats}") String spec) {
+        return cacheManager -> cacheManager.registerCustomCache(AnimeTotalsService.ANIME_TOTALS_CACHE,
+                Caffeine.from(spec).build());
+    }
+}
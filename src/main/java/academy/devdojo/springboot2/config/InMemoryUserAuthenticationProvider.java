@@ -0,0 +1,31 @@
+package academy.devdojo.springboot2.config;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * Authenticates the in-memory users ahead of the database and abstains for every other name, so the users of
+ * the dev_dojo_user table pay neither a lookup in the map nor the bcrypt DaoAuthenticationProvider runs against
+ * timing attacks when a user is not found. A database user with the name of an in-memory user is still tried by
+ * the next provider when the password doesn't match.
+ */
+class InMemoryUserAuthenticationProvider extends DaoAuthenticationProvider {
+    private final InMemoryUserDetailsManager inMemoryUsers;
+
+    InMemoryUserAuthenticationProvider(InMemoryUserDetailsManager inMemoryUsers, PasswordEncoder passwordEncoder) {
+        this.inMemoryUsers = inMemoryUsers;
+        setUserDetailsService(inMemoryUsers);
+        setPasswordEncoder(passwordEncoder);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!inMemoryUsers.userExists(authentication.getName())) {
+            return null;
+        }
+        return super.authenticate(authentication);
+    }
+}
@@ -0,0 +1,48 @@
+package academy.devdojo.springboot2.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Opt-in (devdojo.reactive.enabled) non-blocking data access used by the /animes/reactive endpoints.
+ * Boot's R2DBC auto-configuration is excluded in application.yml: it would always create a connection
+ * factory and a second transaction manager that makes @Transactional ambiguous for the JPA services.
+ * The pool is not exposed as a ConnectionFactory bean because the JDBC DataSource auto-configuration
+ * backs off when one exists.
+ */
+@Configuration
+@ConditionalOnProperty(name = "devdojo.reactive.enabled", havingValue = "true")
+public class ReactiveConfig {
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${devdojo.reactive.url}") String url,
+                                                 @Value("${devdojo.reactive.username}") String username,
+                                                 @Value("${devdojo.reactive.password}") String password,
+                                                 @Value("${devdojo.reactive.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void disposeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package academy.devdojo.springboot2.config;
+
+import academy.devdojo.springboot2.repository.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in (devdojo.datasource.replicas.enabled) read replicas: readOnly transactions, which include the reads of
+ * the Spring Data repositories, run on devdojo.datasource.replicas.urls and everything else on spring.datasource.
+ * Replaces Boot's DataSource, the pools are not beans so JPA and JdbcTemplate still find a single DataSource,
+ * their hikaricp.* meters are tagged with pool primary, replica-0, replica-1...
+ */
+@Configuration
+@ConditionalOnProperty(name = "devdojo.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${devdojo.datasource.replicas.urls}") List<String> urls,
+                                 @Value("${devdojo.datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                 @Value("${devdojo.datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                 @Value("${devdojo.datasource.replicas.pool.max-size:10}") int maxSize) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        pools.add(primary);
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maxSize);
+            replica.setReadOnly(true);
+            pools.add(replica);
+            replicas.add(replica);
+        }
+        meterRegistry.ifAvailable(registry -> pools.forEach(pool ->
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry))));
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas));
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -1,15 +1,22 @@
 package academy.devdojo.springboot2.config;
 
+import academy.devdojo.springboot2.filter.BearerTokenSecurityContextRepository;
+import academy.devdojo.springboot2.filter.TokenAuthenticationFilter;
 import academy.devdojo.springboot2.service.DevDojoUserDetailsService;
+import academy.devdojo.springboot2.service.TokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @EnableWebSecurity
 @Log4j2
@@ -17,6 +24,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final DevDojoUserDetailsService devDojoUserDetailsService;
+    private final TokenService tokenService;
+    @Value("${devdojo.security.in-memory-users.enabled:true}")
+    private boolean inMemoryUsersEnabled;
     /**
      * BasicAuthenticationFilter
      * UsernamePasswordAuthenticationFilter
@@ -24,11 +34,15 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
      * DefaultLogoutPageGeneratingFilter
      * FilterSecurityInterceptor
      * Authentication -> Authorization
+     * TokenAuthenticationFilter runs before BasicAuthenticationFilter: bearer tokens skip the password encoder
+     * BearerTokenSecurityContextRepository keeps the bearer requests out of the session
      * */
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.csrf().disable()
 //                .csrf().csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse() ).and() //utilizar para sempre gerar cookie
+                .securityContext().securityContextRepository(new BearerTokenSecurityContextRepository())
+                .and()
                 .authorizeRequests()
                 .antMatchers("/animes/admin/**").hasRole("ADMIN")
                 .antMatchers("/animes/**").hasRole("USER")
@@ -38,23 +52,28 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .and()
                 .formLogin()
                 .and()
-                .httpBasic();
+                .httpBasic()
+                .and()
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class);
     }
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
         PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
         log.info("Password encoder {}", passwordEncoder.encode("academy"));
-        auth.inMemoryAuthentication()
-                .withUser("douglas")
-                .password(passwordEncoder.encode("douglas"))
-                .roles("USER", "ADMIN")
-                .and()
-                .withUser("devdojo")
-                .password(passwordEncoder.encode("douglas"))
-                .roles("USER");
-
-//        auth.userDetailsService(devDojoUserDetailsService)
-//                .passwordEncoder(passwordEncoder);
+        // providers are tried in the order they are added, the in-memory users first
+        if (inMemoryUsersEnabled) {
+            auth.authenticationProvider(new InMemoryUserAuthenticationProvider(new InMemoryUserDetailsManager(
+                    User.withUsername("douglas")
+                            .password(passwordEncoder.encode("douglas"))
+                            .roles("USER", "ADMIN")
+                            .build(),
+                    User.withUsername("devdojo")
+                            .password(passwordEncoder.encode("douglas"))
+                            .roles("USER")
+                            .build()), passwordEncoder));
+        }
+        auth.userDetailsService(devDojoUserDetailsService)
+                .passwordEncoder(passwordEncoder);
     }
 }
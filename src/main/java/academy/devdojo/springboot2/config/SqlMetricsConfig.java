@@ -0,0 +1,51 @@
+package academy.devdojo.springboot2.config;
+
+import academy.devdojo.springboot2.filter.SqlStatementCounter;
+import academy.devdojo.springboot2.repository.RepositoryInvocationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Database metrics on top of the ones actuator already binds (hibernate.* from the Hibernate statistics,
+ * hikaricp.* with the connection acquire time): timers per repository method and the SQL statement count
+ * of every request, see {@link academy.devdojo.springboot2.filter.StatementBudgetFilter}.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    /**
+     * Static and lazy on the registry: bean post processors are created before the beans they process.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryInvocationMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        RepositoryInvocationMetrics repositoryInvocationMetrics = new RepositoryInvocationMetrics(
+                SingletonSupplier.of(meterRegistry::getObject));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(repositoryFactory ->
+                            repositoryFactory.addInvocationListener(repositoryInvocationMetrics));
+                }
+                return bean;
+            }
+        };
+    }
+}
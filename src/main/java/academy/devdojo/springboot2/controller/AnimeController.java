@@ -1,10 +1,22 @@
 package academy.devdojo.springboot2.controller;
 
 import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.domain.AnimeSearchMode;
+import academy.devdojo.springboot2.domain.PageTotals;
+import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
 import academy.devdojo.springboot2.requests.AnimePostRequestBody;
 import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.service.AnimeGroupCommitService;
 import academy.devdojo.springboot2.service.AnimeService;
-import academy.devdojo.springboot2.util.DateUtil;
+import academy.devdojo.springboot2.util.AnimeCursor;
+import academy.devdojo.springboot2.util.AnimeETag;
+import academy.devdojo.springboot2.wrapper.BulkDeleteResponse;
+import academy.devdojo.springboot2.wrapper.CursorPageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,15 +26,21 @@ import lombok.extern.log4j.Log4j2;
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -30,26 +48,62 @@ import java.util.List;
 @Log4j2
 @AllArgsConstructor
 public class AnimeController {
-    private DateUtil dateUtil;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
     public AnimeService animeService;
+    private ObjectMapper objectMapper;
+    private AnimeGroupCommitService animeGroupCommitService;
 
     @GetMapping
-    @Operation(summary = "List all animes paginated", description = "the default size is 20, use the parameter size to change default value",
+    @Operation(summary = "List all animes paginated", description = "the default size is 20, use the parameter size to change default value. " +
+            "totals EXACT counts every time, CACHED and ESTIMATED return \"totalExact\": false, NONE omits the total",
     tags = {"anime"})
-    public ResponseEntity<Page<Anime>> list(/*@Parameter(hidden = true)*/@ParameterObject Pageable pageable) {
-        log.info(dateUtil.formatLocalDateTimeToDatabaseStyle(LocalDateTime.now()));
-        return ResponseEntity.ok(animeService.listAll(pageable));
+    public ResponseEntity<Slice<Anime>> list(/*@Parameter(hidden = true)*/@ParameterObject Pageable pageable,
+                                             @RequestParam(required = false) PageTotals totals) {
+        Slice<Anime> animePage = animeService.listAll(pageable, totals);
+        return ResponseEntity.ok().eTag(AnimeETag.of(animePage)).body(animePage);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "List animes using keyset pagination", description = "send the nextCursor of the previous page " +
+            "to get the next one, no total count is calculated", tags = {"anime"})
+    public ResponseEntity<CursorPageResponse<Anime>> listByCursor(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "5") int size,
+                                                                  @RequestParam(defaultValue = "ID") AnimeCursor.Sort sort) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("The size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(animeService.listByCursor(cursor, size, sort));
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<Anime>> listAll() {
-        log.info(dateUtil.formatLocalDateTimeToDatabaseStyle(LocalDateTime.now()));
         return ResponseEntity.ok(animeService.listAllNonPageable());
     }
 
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Stream all animes as a json array", description = "the animes are written while they are read " +
+            "from the database, so the memory used does not depend on the number of animes", tags = {"anime"})
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> streamAnimes(outputStream, false));
+    }
+
+    @GetMapping(value = "/all/stream", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all animes as newline delimited json", tags = {"anime"})
+    public ResponseEntity<StreamingResponseBody> streamAllNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(outputStream -> streamAnimes(outputStream, true));
+    }
+
     @GetMapping("/{id}")
+    @Operation(summary = "Find anime by id", description = "send the ETag in If-None-Match to get 304 when the anime " +
+            "did not change", tags = {"anime"})
     public ResponseEntity<Anime> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+        Anime anime = animeService.findByIdOrThrowBadRequestException(id);
+        return ResponseEntity.ok().eTag(AnimeETag.of(anime)).body(anime);
     }
 
     @GetMapping("by-id/{id}")
@@ -64,15 +118,63 @@ public class AnimeController {
         return ResponseEntity.ok(animeService.findByName(name));
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search animes by name ignoring case, paginated", description = "mode PREFIX (default) " +
+            "matches the beginning of the name, mode CONTAINS matches any part of it", tags = {"anime"})
+    public ResponseEntity<Page<Anime>> search(@RequestParam String name,
+                                              @RequestParam(defaultValue = "PREFIX") AnimeSearchMode mode,
+                                              @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(animeService.search(name, mode, pageable));
+    }
+
     @PostMapping
 //    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Anime> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody) {
-        return new ResponseEntity<>(animeService.save(animePostRequestBody), HttpStatus.CREATED);
+        Anime anime = animeGroupCommitService.isEnabled()
+                ? animeGroupCommitService.save(animePostRequestBody)
+                : animeService.save(animePostRequestBody);
+        return new ResponseEntity<>(anime, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Save a list of animes in a single transaction using JDBC batches", tags = {"anime"})
+    public ResponseEntity<List<Anime>> saveAll(@RequestBody @Valid AnimeBatchPostRequestBody animeBatchPostRequestBody) {
+        return new ResponseEntity<>(animeService.saveAll(animeBatchPostRequestBody), HttpStatus.CREATED);
     }
 
     @PutMapping
-    public ResponseEntity<Anime> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
-        return new ResponseEntity<>(animeService.replace(animePutRequestBody), HttpStatus.CREATED);
+    @Operation(summary = "Replace anime", description = "send the ETag in If-Match to fail with 412 when the anime " +
+            "was changed by someone else", tags = {"anime"})
+    public ResponseEntity<Anime> replace(@RequestBody AnimePutRequestBody animePutRequestBody,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            animePutRequestBody.setVersion(AnimeETag.expectedVersion(ifMatch, animePutRequestBody.getId()));
+        }
+        Anime anime = animeService.replace(animePutRequestBody);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(AnimeETag.of(anime)).body(anime);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Rename anime with a single UPDATE statement", description = "send the ETag in If-Match to " +
+            "fail with 412 when the anime was changed by someone else, the new ETag is returned in that case", tags = {"anime"})
+    public ResponseEntity<Void> patch(@PathVariable long id, @RequestBody @Valid AnimePatchRequestBody animePatchRequestBody,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            animePatchRequestBody.setVersion(AnimeETag.expectedVersion(ifMatch, id));
+        }
+        animeService.patch(id, animePatchRequestBody);
+        ResponseEntity.HeadersBuilder<?> noContent = ResponseEntity.noContent();
+        if (animePatchRequestBody.getVersion() != null) {
+            noContent.eTag(AnimeETag.of(id, animePatchRequestBody.getVersion() + 1));
+        }
+        return noContent.build();
+    }
+
+    @DeleteMapping("/admin")
+    @Operation(summary = "Delete animes by a list of ids or by name using set based DELETE statements",
+            description = "runs in a single transaction and returns the number of animes deleted", tags = {"anime"})
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@RequestBody @Valid AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody) {
+        return ResponseEntity.ok(new BulkDeleteResponse(animeService.deleteAll(animeBulkDeleteRequestBody)));
     }
 
     @DeleteMapping("/admin/{id}")
@@ -84,4 +186,18 @@ public class AnimeController {
         animeService.delete(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private void streamAnimes(OutputStream outputStream, boolean ndjson) throws IOException {
+        try (SequenceWriter sequenceWriter = ndjson
+                ? objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)
+                : objectMapper.writer().writeValuesAsArray(outputStream)) {
+            animeService.streamAll(anime -> {
+                try {
+                    sequenceWriter.write(anime);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package academy.devdojo.springboot2.controller;
+
+import academy.devdojo.springboot2.service.TokenService;
+import academy.devdojo.springboot2.wrapper.TokenResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("auth")
+@AllArgsConstructor
+public class AuthController {
+    private TokenService tokenService;
+
+    @PostMapping("/token")
+    @Operation(summary = "Exchange the basic credentials for a bearer token", description = "send the token in the " +
+            "Authorization: Bearer header, the password is not verified again until the token expires. A bearer " +
+            "token can't be exchanged for a new one", tags = {"auth"})
+    public ResponseEntity<TokenResponse> token(Authentication authentication) {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(new TokenResponse(tokenService.createToken(authentication), "Bearer",
+                tokenService.getTtl().getSeconds()));
+    }
+}
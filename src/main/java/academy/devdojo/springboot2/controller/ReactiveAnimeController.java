@@ -0,0 +1,71 @@
+package academy.devdojo.springboot2.controller;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.service.ReactiveAnimeService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.AllArgsConstructor;
+import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * Reactive variant of {@link AnimeController}. The handlers return Mono/Flux, so Spring MVC releases the
+ * Tomcat thread while R2DBC waits for the database and resumes the request when the data arrives.
+ * Paths stay under /animes/** and /animes/admin/** to reuse the same security rules.
+ */
+@RestController
+@RequestMapping("animes")
+@AllArgsConstructor
+@ConditionalOnProperty(name = "devdojo.reactive.enabled", havingValue = "true")
+public class ReactiveAnimeController {
+    private ReactiveAnimeService reactiveAnimeService;
+
+    @GetMapping("/reactive")
+    @Operation(summary = "List all animes paginated without blocking a servlet thread", tags = {"anime-reactive"})
+    public Mono<Page<Anime>> list(@ParameterObject Pageable pageable) {
+        return reactiveAnimeService.listAll(pageable);
+    }
+
+    @GetMapping("/reactive/all")
+    public Flux<Anime> listAll() {
+        return reactiveAnimeService.listAllNonPageable();
+    }
+
+    @GetMapping("/reactive/{id}")
+    public Mono<Anime> findById(@PathVariable long id) {
+        return reactiveAnimeService.findByIdOrThrowBadRequestException(id);
+    }
+
+    @GetMapping("/reactive/find")
+    public Flux<Anime> findByName(@RequestParam String name) {
+        return reactiveAnimeService.findByName(name);
+    }
+
+    @PostMapping("/reactive")
+    public Mono<ResponseEntity<Anime>> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody) {
+        return reactiveAnimeService.save(animePostRequestBody)
+                .map(anime -> new ResponseEntity<>(anime, HttpStatus.CREATED));
+    }
+
+    @PutMapping("/reactive")
+    public Mono<ResponseEntity<Anime>> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
+        return reactiveAnimeService.replace(animePutRequestBody)
+                .map(anime -> new ResponseEntity<>(anime, HttpStatus.CREATED));
+    }
+
+    @DeleteMapping("/admin/reactive/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return reactiveAnimeService.delete(id)
+                .thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+}
@@ -1,26 +1,80 @@
 package academy.devdojo.springboot2.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
+import java.util.Locale;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Builder
+@Table(indexes = {
+        @Index(name = "idx_anime_name", columnList = "name"),
+        @Index(name = "idx_anime_normalized_name", columnList = "normalized_name")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Anime.CACHE_REGION)
 public class Anime {
+    /**
+     * Second-level cache regions, only used with the l2cache profile and bounded in ehcache-hibernate.xml.
+     */
+    public static final String CACHE_REGION = "anime";
+    public static final String BY_NAME_CACHE_REGION = "anime-by-name";
 
+    /**
+     * Pooled-lo sequence (a table on MySQL) reserves 50 ids per round trip and,
+     * unlike IDENTITY, lets Hibernate batch the inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "anime_seq")
+    @GenericGenerator(name = "anime_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "anime_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
     @NotEmpty(message = "The anime name can't be empty")
     private String name;
+    /**
+     * Lower case copy of the name, indexed so prefix searches are case insensitive on every database.
+     */
+    @JsonIgnore
+    @Column(name = "normalized_name")
+    private String normalizedName;
+    /**
+     * Incremented on every update, used for optimistic locking and as the ETag of the anime.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        this.normalizedName = normalizeName(this.name);
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 }
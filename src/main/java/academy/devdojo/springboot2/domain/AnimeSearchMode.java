@@ -0,0 +1,5 @@
+package academy.devdojo.springboot2.domain;
+
+public enum AnimeSearchMode {
+    PREFIX, CONTAINS
+}
@@ -1,27 +1,36 @@
 package academy.devdojo.springboot2.domain;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.validation.constraints.NotEmpty;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Builder
+@Table(indexes = @Index(name = "uk_dev_dojo_user_user_name", columnList = "user_name", unique = true))
 public class DevDojoUser implements UserDetails {
 
     @Id
@@ -30,15 +39,54 @@ public class DevDojoUser implements UserDetails {
     @NotEmpty(message = "The user's name can't be empty")
     private String name;
 
+    @Column(name = "user_name", nullable = false)
     private String userName;
     private String password;
     private String authorities; //ROLE_ADMIN, ROLE_USER
 
+    /**
+     * authorities parsed on the first call, reset when the authorities string changes.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient Set<GrantedAuthority> grantedAuthorities;
+
+    @Builder
+    public DevDojoUser(Long id, String name, String userName, String password, String authorities) {
+        this.id = id;
+        this.name = name;
+        this.userName = userName;
+        this.password = password;
+        this.authorities = authorities;
+    }
+
+    public void setAuthorities(String authorities) {
+        this.authorities = authorities;
+        this.grantedAuthorities = null;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(authorities.split(","))
+        Set<GrantedAuthority> parsedAuthorities = grantedAuthorities;
+        if (parsedAuthorities == null) {
+            parsedAuthorities = parseAuthorities(authorities);
+            grantedAuthorities = parsedAuthorities;
+        }
+        return parsedAuthorities;
+    }
+
+    private static Set<GrantedAuthority> parseAuthorities(String authorities) {
+        if (authorities == null) {
+            return Collections.emptySet();
+        }
+        Set<GrantedAuthority> parsedAuthorities = Arrays.stream(authorities.split(","))
+                .map(String::trim)
+                .filter(authority -> !authority.isEmpty())
                 .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return Collections.unmodifiableSet(parsedAuthorities);
     }
 
     @Override
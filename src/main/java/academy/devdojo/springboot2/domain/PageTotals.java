@@ -0,0 +1,23 @@
+package academy.devdojo.springboot2.domain;
+
+/**
+ * How the total number of animes of a paged list is obtained.
+ */
+public enum PageTotals {
+    /**
+     * SELECT COUNT(*) for every page.
+     */
+    EXACT,
+    /**
+     * COUNT(*) kept in a cache with a TTL, evicted when animes are saved or deleted.
+     */
+    CACHED,
+    /**
+     * Row count estimated from the table statistics of the database.
+     */
+    ESTIMATED,
+    /**
+     * No total, only whether there is a next page.
+     */
+    NONE
+}
@@ -0,0 +1,14 @@
+package academy.devdojo.springboot2.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The request gave up waiting for work that may still complete, so sending it again could do it twice.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class GatewayTimeoutException extends RuntimeException {
+    public GatewayTimeoutException(String message) {
+        super(message);
+    }
+}
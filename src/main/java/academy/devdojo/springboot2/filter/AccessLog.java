@@ -0,0 +1,103 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.util.DateUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands access log entries from the request threads to a background flusher through a lock-free ring buffer.
+ * Formatting and writing happen on the flusher, entries that do not fit in the buffer are dropped and counted.
+ */
+@Log4j2(topic = "academy.devdojo.springboot2.access")
+@Component
+@ConditionalOnProperty(name = "devdojo.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLog {
+    private final AccessLogRingBuffer buffer;
+    private final Duration flushInterval;
+    private final DateUtil dateUtil;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public AccessLog(@Value("${devdojo.access-log.buffer-size:8192}") int bufferSize,
+                     @Value("${devdojo.access-log.flush-interval:1s}") Duration flushInterval,
+                     DateUtil dateUtil) {
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.flushInterval = flushInterval;
+        this.dateUtil = dateUtil;
+    }
+
+    public void record(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushUntilStopped, "access-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(flushInterval.toMillis() + 1000);
+    }
+
+    private void flushUntilStopped() {
+        long reportedDropped = 0;
+        while (running) {
+            if (flush() == 0) {
+                LockSupport.parkNanos(flushInterval.toNanos());
+            }
+            long droppedNow = dropped.get();
+            if (droppedNow != reportedDropped) {
+                log.warn("{} access log entries dropped, the buffer of {} entries was full", droppedNow - reportedDropped,
+                        buffer.capacity());
+                reportedDropped = droppedNow;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes everything in the buffer, returns the number of entries written.
+     */
+    int flush() {
+        int flushed = 0;
+        for (AccessLogEntry entry = buffer.poll(); entry != null; entry = buffer.poll()) {
+            if (log.isInfoEnabled()) {
+                log.info("{} {} {} {} {}ms", format(entry.getTimestamp()), entry.getMethod(), entry.getRoute(),
+                        entry.getStatus(), String.format("%.3f", entry.getLatencyNanos() / 1_000_000d));
+            }
+            flushed++;
+        }
+        return flushed;
+    }
+
+    private String format(long timestamp) {
+        return dateUtil.formatLocalDateTimeToDatabaseStyle(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp),
+                ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,12 @@
+package academy.devdojo.springboot2.filter;
+
+import lombok.Value;
+
+@Value
+public class AccessLogEntry {
+    long timestamp;
+    String method;
+    String route;
+    int status;
+    long latencyNanos;
+}
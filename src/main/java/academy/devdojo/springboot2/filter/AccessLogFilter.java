@@ -0,0 +1,93 @@
+package academy.devdojo.springboot2.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records method, route, status and latency of every request into the {@link AccessLog}.
+ * Runs before Spring Security so rejected requests and authentication time are included.
+ * Only a sample (devdojo.access-log.sample-rate) is kept, server errors are always kept.
+ * Asynchronous requests (streaming, Mono/Flux) are recorded when the response completes.
+ */
+@Component
+@ConditionalOnProperty(name = "devdojo.access-log.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+    private final AccessLog accessLog;
+    private final double sampleRate;
+
+    public AccessLogFilter(AccessLog accessLog, @Value("${devdojo.access-log.sample-rate:1.0}") double sampleRate) {
+        this.accessLog = accessLog;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (failed) {
+                // the error page sets the status later, in a dispatch this filter does not see
+                record(request, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, start);
+            } else if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(start));
+            } else {
+                record(request, response.getStatus(), start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, long start) {
+        long latencyNanos = System.nanoTime() - start;
+        if (status < 500 && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : request.getRequestURI();
+        accessLog.record(new AccessLogEntry(System.currentTimeMillis(), request.getMethod(), route, status, latencyNanos));
+    }
+
+    private class CompletionListener implements AsyncListener {
+        private final long start;
+
+        CompletionListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record((HttpServletRequest) event.getSuppliedRequest(),
+                    ((HttpServletResponse) event.getSuppliedResponse()).getStatus(), start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package academy.devdojo.springboot2.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers (request threads) and a single consumer (the flusher).
+ * Every slot has a sequence number telling whether it is free for the producer claiming position n
+ * (sequence == n) or holds an entry for the consumer reading position n (sequence == n + 1).
+ * When the buffer is full {@link #offer} fails instead of blocking the request thread.
+ */
+class AccessLogRingBuffer {
+    private final int mask;
+    private final AtomicReferenceArray<AccessLogEntry> entries;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    AccessLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    boolean offer(AccessLogEntry entry) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entries.lazySet(index, entry);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Only called by the consumer thread.
+     */
+    AccessLogEntry poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        AccessLogEntry entry = entries.get(index);
+        entries.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return entry;
+    }
+}
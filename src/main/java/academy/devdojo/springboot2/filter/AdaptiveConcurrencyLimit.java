@@ -0,0 +1,130 @@
+package academy.devdojo.springboot2.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limit, the algorithm of Netflix's Gradient2 limiter: every window of samples compares
+ * the average latency of the window with the long term average. While the window is no slower than the long
+ * term average (times a tolerance) the limit grows by its square root, when it gets slower the limit shrinks
+ * in proportion, down to half per window. A smoothing factor keeps a single slow window from halving it.
+ * <p>
+ * Lower priorities may only use a share of the limit, so when it shrinks they are shed first.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final int WINDOW_SIZE = 50;
+    /**
+     * Windows averaged into the long term latency.
+     */
+    private static final int LONG_WINDOWS = 20;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double normalPriorityShare;
+    private final double lowPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // guarded by this
+    private long windowLatencySum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double longLatency = -1;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double normalPriorityShare,
+                                    double lowPriorityShare) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.normalPriorityShare = normalPriorityShare;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    /**
+     * @return true when the request may run, it must then call {@link #release(long)} or {@link #release()} when
+     * it completes
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * share(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        sample(latencyNanos, inFlightBeforeRelease);
+    }
+
+    /**
+     * Frees the slot without sampling the latency, for requests whose duration depends on the size of what they
+     * return rather than on the load: a single export would outweigh a whole window of id lookups.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double share(Priority priority) {
+        switch (priority) {
+            case LOW:
+                return lowPriorityShare;
+            case NORMAL:
+                return normalPriorityShare;
+            default:
+                return 1;
+        }
+    }
+
+    private synchronized void sample(long latencyNanos, int inFlightBeforeRelease) {
+        windowLatencySum += latencyNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBeforeRelease);
+        if (++windowSamples < WINDOW_SIZE) {
+            return;
+        }
+        double shortLatency = Math.max(1, windowLatencySum / (double) windowSamples);
+        if (longLatency < 0) {
+            longLatency = shortLatency;
+        } else {
+            longLatency += (shortLatency - longLatency) / LONG_WINDOWS;
+            if (longLatency > 2 * shortLatency) {
+                // the load that made the latency high is gone, forget it faster
+                longLatency *= 0.95;
+            }
+        }
+        double currentLimit = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double newLimit;
+        if (gradient == 1.0 && windowMaxInFlight < currentLimit / 2) {
+            // not limited by us, growing would only allow a bigger burst later
+            newLimit = currentLimit;
+        } else {
+            newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, currentLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        windowLatencySum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+}
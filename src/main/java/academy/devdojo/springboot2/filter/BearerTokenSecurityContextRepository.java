@@ -0,0 +1,45 @@
+package academy.devdojo.springboot2.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the requests carrying a bearer token stateless: their SecurityContext is neither loaded from nor saved to
+ * the session, so they get no JSESSIONID that would keep authenticating after the token expires. The other
+ * requests, form login included, go on using the session.
+ */
+@RequiredArgsConstructor
+public class BearerTokenSecurityContextRepository implements SecurityContextRepository {
+    private final SecurityContextRepository sessionRepository;
+
+    public BearerTokenSecurityContextRepository() {
+        this(new HttpSessionSecurityContextRepository());
+    }
+
+    @Override
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        if (TokenAuthenticationFilter.hasBearerToken(requestResponseHolder.getRequest())) {
+            return SecurityContextHolder.createEmptyContext();
+        }
+        return sessionRepository.loadContext(requestResponseHolder);
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        if (!TokenAuthenticationFilter.hasBearerToken(request)) {
+            sessionRepository.saveContext(context, request, response);
+        }
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return !TokenAuthenticationFilter.hasBearerToken(request) && sessionRepository.containsContext(request);
+    }
+}
@@ -0,0 +1,153 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.filter.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Sheds /animes/** requests above the {@link AdaptiveConcurrencyLimit} with 503 and Retry-After before they
+ * take a Tomcat thread and a database connection for longer than they are worth. Id lookups may use the
+ * whole limit, /animes/all, batch inserts and bulk deletes only devdojo.concurrency-limit.low-priority-share.
+ * Runs before Spring Security so shed requests don't pay for the password check. Low priority requests, the
+ * streams among them, hold their permit until they complete but their latency isn't sampled.
+ */
+@Component
+@ConditionalOnProperty(name = "devdojo.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Pattern ID_LOOKUP = Pattern.compile("/animes/(reactive/|by-id/)?\\d+");
+    private static final Pattern LOW_PRIORITY = Pattern.compile("/animes/(reactive/)?all(/.*)?|/animes/batch|/animes/admin");
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final String retryAfterSeconds;
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    @Autowired
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${devdojo.concurrency-limit.initial-limit:50}") int initialLimit,
+                                  @Value("${devdojo.concurrency-limit.min-limit:10}") int minLimit,
+                                  @Value("${devdojo.concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${devdojo.concurrency-limit.normal-priority-share:0.9}") double normalPriorityShare,
+                                  @Value("${devdojo.concurrency-limit.low-priority-share:0.5}") double lowPriorityShare,
+                                  @Value("${devdojo.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        this(meterRegistry, new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, normalPriorityShare,
+                lowPriorityShare), retryAfter);
+    }
+
+    ConcurrencyLimitFilter(MeterRegistry meterRegistry, AdaptiveConcurrencyLimit concurrencyLimit, Duration retryAfter) {
+        this.concurrencyLimit = concurrencyLimit;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.getSeconds()));
+        Gauge.builder("devdojo.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Adaptive limit of in-flight /animes requests")
+                .register(meterRegistry);
+        Gauge.builder("devdojo.concurrency.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("devdojo.concurrency.rejected")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith("/animes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Priority priority = priority(request);
+        if (!concurrencyLimit.tryAcquire(priority)) {
+            rejected.get(priority).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(priority, start));
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                release(priority, start);
+            }
+        }
+    }
+
+    private void release(Priority priority, long start) {
+        if (priority == Priority.LOW) {
+            concurrencyLimit.release();
+        } else {
+            concurrencyLimit.release(System.nanoTime() - start);
+        }
+    }
+
+    static Priority priority(HttpServletRequest request) {
+        String path = path(request);
+        if (LOW_PRIORITY.matcher(path).matches()) {
+            return Priority.LOW;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) && ID_LOOKUP.matcher(path).matches()) {
+            return Priority.HIGH;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private class ReleaseListener implements AsyncListener {
+        private final Priority priority;
+        private final long start;
+
+        ReleaseListener(Priority priority, long start) {
+            this.priority = priority;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(priority, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.repository.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps the reads of a client on the primary for devdojo.datasource.replicas.pin-after-write after it sent a
+ * POST, PUT, PATCH or DELETE, so it doesn't miss its own write on a lagging replica. The client is recognized
+ * by a cookie set on the write, clients that drop cookies read from the replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "devdojo.datasource.replicas.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String PIN_COOKIE = "devdojo-read-primary";
+    private final Duration pinAfterWrite;
+
+    public ReadYourWritesFilter(@Value("${devdojo.datasource.replicas.pin-after-write:5s}") Duration pinAfterWrite) {
+        this.pinAfterWrite = pinAfterWrite;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return pinAfterWrite.isZero() || pinAfterWrite.isNegative();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = isWrite(request);
+        if (write) {
+            // before the chain, the response may be committed when it returns
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(PIN_COOKIE, "1")
+                    .maxAge(pinAfterWrite)
+                    .path("/")
+                    .httpOnly(true)
+                    .build()
+                    .toString());
+        }
+        if (!write && WebUtils.getCookie(request, PIN_COOKIE) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        return method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH
+                || method == HttpMethod.DELETE;
+    }
+}
@@ -0,0 +1,52 @@
+package academy.devdojo.springboot2.filter;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hibernate statement inspector keeping the SQL statements prepared by the current thread between
+ * {@link #start()} and {@link #stop()}. Statements of other threads (async request processing, the
+ * access log flusher) and statements outside a counted block are not kept.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+    public void start() {
+        statements.set(newStatements());
+    }
+
+    /**
+     * @return statements prepared since {@link #start()}, 0 when counting was not started
+     */
+    public int stop() {
+        return stopAndGetStatements().size();
+    }
+
+    /**
+     * @return the SQL of the statements prepared since {@link #start()}, empty when counting was not started
+     */
+    public List<String> stopAndGetStatements() {
+        List<String> counted = statements.get();
+        statements.remove();
+        return counted == null ? Collections.emptyList() : counted;
+    }
+
+    /**
+     * @return the list the statements of a new counted block are added to
+     */
+    protected List<String> newStatements() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> counted = statements.get();
+        if (counted != null) {
+            counted.add(sql);
+        }
+        return sql;
+    }
+}
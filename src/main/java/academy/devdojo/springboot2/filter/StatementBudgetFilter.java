@@ -0,0 +1,69 @@
+package academy.devdojo.springboot2.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Counts the SQL statements of every request into the devdojo.sql.statements summary, tagged by method and
+ * route, and logs a warning with the SQL when a request runs more than devdojo.sql.statement-budget statements,
+ * the usual sign of an N+1 query. Runs before Spring Security so the user lookup of the authentication is included.
+ */
+@Log4j2
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+
+    public StatementBudgetFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry,
+                                 @Value("${devdojo.sql.statement-budget:10}") int statementBudget) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, sqlStatementCounter.stopAndGetStatements());
+        }
+    }
+
+    private void record(HttpServletRequest request, List<String> statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("devdojo.sql.statements")
+                .baseUnit("statements")
+                .tags("method", request.getMethod(), "uri", route)
+                .register(meterRegistry)
+                .record(statements.size());
+        if (statements.size() > statementBudget) {
+            Counter.builder("devdojo.sql.statement.budget.exceeded")
+                    .tags("method", request.getMethod(), "uri", route)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran {} SQL statements, the budget is {}: {}", request.getMethod(), request.getRequestURI(),
+                    statements.size(), statementBudget, statements);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer token" issued by POST /auth/token.
+ * Invalid or expired tokens are ignored, the request then goes on unauthenticated. These requests never use the
+ * session, see {@link BearerTokenSecurityContextRepository}.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+    private final TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (hasBearerToken(request)) {
+            tokenService.parseToken(request.getHeader(HttpHeaders.AUTHORIZATION).substring(BEARER.length()).trim())
+                    .ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    static boolean hasBearerToken(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.startsWith(BEARER);
+    }
+}
@@ -3,7 +3,12 @@ package academy.devdojo.springboot2.handler;
 import academy.devdojo.springboot2.exception.BadRequestException;
 import academy.devdojo.springboot2.exception.BadRequestExceptionDetails;
 import academy.devdojo.springboot2.exception.ExceptionDetails;
+import academy.devdojo.springboot2.exception.GatewayTimeoutException;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
+import academy.devdojo.springboot2.exception.ServiceUnavailableException;
 import academy.devdojo.springboot2.exception.ValidationExceptionDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,12 +20,21 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
+    private final String retryAfterSeconds;
+
+    /**
+     * The 503 answers share devdojo.concurrency-limit.retry-after with the requests shed by ConcurrencyLimitFilter.
+     */
+    public RestExceptionHandler(@Value("${devdojo.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.getSeconds()));
+    }
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<BadRequestExceptionDetails> handlerBadRequestException(BadRequestException badRequestException) {
@@ -34,6 +48,46 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                         .build(), HttpStatus.BAD_REQUEST
         );
     }
+
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ExceptionDetails> handlerPreconditionFailedException(RuntimeException exception) {
+        return new ResponseEntity<>(
+                ExceptionDetails.builder()
+                        .title("Precondition Failed, the anime was modified")
+                        .status(HttpStatus.PRECONDITION_FAILED.value())
+                        .details(exception.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .developerMessage(exception.getClass().getName())
+                        .build(), HttpStatus.PRECONDITION_FAILED
+        );
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ExceptionDetails> handlerServiceUnavailableException(ServiceUnavailableException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body(ExceptionDetails.builder()
+                        .title("Service Unavailable, try again later")
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .details(exception.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .developerMessage(exception.getClass().getName())
+                        .build());
+    }
+
+    @ExceptionHandler(GatewayTimeoutException.class)
+    public ResponseEntity<ExceptionDetails> handlerGatewayTimeoutException(GatewayTimeoutException exception) {
+        return new ResponseEntity<>(
+                ExceptionDetails.builder()
+                        .title("Gateway Timeout, the outcome is unknown")
+                        .status(HttpStatus.GATEWAY_TIMEOUT.value())
+                        .details(exception.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .developerMessage(exception.getClass().getName())
+                        .build(), HttpStatus.GATEWAY_TIMEOUT
+        );
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatus status, WebRequest request) {
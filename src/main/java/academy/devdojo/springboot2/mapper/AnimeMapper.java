@@ -1,10 +1,14 @@
 package academy.devdojo.springboot2.mapper;
 
 import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
 import academy.devdojo.springboot2.requests.AnimePostRequestBody;
 import academy.devdojo.springboot2.requests.AnimePutRequestBody;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 public class AnimeMapper {
 
@@ -13,6 +17,14 @@ public class AnimeMapper {
     }
 
     public Anime toAnime(AnimePutRequestBody animePutRequestBody) {
-        return Anime.builder().name(animePutRequestBody.getName()).id(animePutRequestBody.getId()).build();
+        return Anime.builder()
+                .name(animePutRequestBody.getName())
+                .id(animePutRequestBody.getId())
+                .version(animePutRequestBody.getVersion())
+                .build();
+    }
+
+    public List<Anime> toAnimes(AnimeBatchPostRequestBody animeBatchPostRequestBody) {
+        return animeBatchPostRequestBody.getAnimes().stream().map(this::toAnime).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,42 @@
+package academy.devdojo.springboot2.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Fills normalized_name for the animes saved before the column existed, /animes/search can't find them otherwise.
+ * Anime fills it on every insert and update, so after the first start this finds nothing. Updates in chunks
+ * so a big table isn't locked by a single statement.
+ */
+@Log4j2
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class AnimeNormalizedNameBackfill implements SmartInitializingSingleton {
+    static final int CHUNK_SIZE = 1000;
+    // same as Anime.normalizeName
+    private static final String BACKFILL = "UPDATE anime SET normalized_name = LOWER(TRIM(name)) " +
+            "WHERE normalized_name IS NULL AND name IS NOT NULL LIMIT " + CHUNK_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // waits for a deferred JPA bootstrap, the column exists afterwards
+        entityManagerFactory.getMetamodel();
+        long backfilled = 0;
+        for (int updated = jdbcTemplate.update(BACKFILL); updated > 0; updated = jdbcTemplate.update(BACKFILL)) {
+            backfilled += updated;
+        }
+        if (backfilled > 0) {
+            log.info("normalized_name filled for {} animes", backfilled);
+        }
+    }
+}
@@ -1,13 +1,74 @@
 package academy.devdojo.springboot2.repository;
 
 import academy.devdojo.springboot2.domain.Anime;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface AnimeRepository extends JpaRepository<Anime, Long> {
 
+    /**
+     * Cached in the query cache when the second-level cache is enabled, any write to anime invalidates it.
+     */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Anime.BY_NAME_CACHE_REGION)})
     List<Anime> findByName(String name);
+
+    /**
+     * Same page as findAll(Pageable) without the COUNT query, one extra row tells whether there is a next page.
+     */
+    Slice<Anime> findAllBy(Pageable pageable);
+
+    Page<Anime> findByNormalizedNameStartingWith(String prefix, Pageable pageable);
+
+    Page<Anime> findByNormalizedNameContaining(String text, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select a from Anime a")
+    Stream<Anime> streamAll();
+
+    List<Anime> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<Anime> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Anime> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    @Query("select a from Anime a where a.name > :name or (a.name = :name and a.id > :id) order by a.name, a.id")
+    List<Anime> findAfterNameAndId(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Query("update Anime a set a.name = :name, a.normalizedName = :normalizedName, a.version = a.version + 1 " +
+            "where a.id = :id")
+    int updateName(@Param("id") Long id, @Param("name") String name, @Param("normalizedName") String normalizedName);
+
+    @Modifying
+    @Query("update Anime a set a.name = :name, a.normalizedName = :normalizedName, a.version = a.version + 1 " +
+            "where a.id = :id and a.version = :version")
+    int updateNameIfVersion(@Param("id") Long id, @Param("name") String name,
+                            @Param("normalizedName") String normalizedName, @Param("version") Long version);
+
+    @Modifying
+    @Query("delete from Anime a where a.id in :ids")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Anime a where a.name = :name")
+    int bulkDeleteByName(@Param("name") String name);
 }
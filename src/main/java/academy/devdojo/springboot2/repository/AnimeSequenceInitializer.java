@@ -0,0 +1,68 @@
+package academy.devdojo.springboot2.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Moves anime_seq past the highest anime id. ddl-auto creates the sequence starting at 1, so on a database whose
+ * ids came from IDENTITY the pooled-lo generator would hand out ids that already exist. Runs once all the
+ * singletons exist, before the web server accepts requests, and only ever moves the sequence forward.
+ */
+@Log4j2
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class AnimeSequenceInitializer implements SmartInitializingSingleton {
+    private static final String MAX_ID = "SELECT MAX(id) FROM anime";
+    // MySQL has no sequences, Hibernate keeps the next value in the anime_seq table
+    private static final String MYSQL_ADVANCE = "UPDATE anime_seq SET next_val = ? WHERE next_val < ?";
+    private static final String H2_NEXT_VALUE = "SELECT CURRENT_VALUE + INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES " +
+            "WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = 'ANIME_SEQ'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // waits for a deferred JPA bootstrap, the schema exists afterwards
+        entityManagerFactory.getMetamodel();
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID, Long.class);
+        if (maxId != null) {
+            advanceTo(maxId + 1);
+        }
+    }
+
+    private void advanceTo(long nextId) {
+        String databaseProductName = databaseProductName();
+        if (databaseProductName.startsWith("MySQL")) {
+            if (jdbcTemplate.update(MYSQL_ADVANCE, nextId, nextId) > 0) {
+                log.info("anime_seq moved to {}, past the existing anime ids", nextId);
+            }
+        } else if (databaseProductName.startsWith("H2")) {
+            Long nextValue = jdbcTemplate.queryForObject(H2_NEXT_VALUE, Long.class);
+            if (nextValue != null && nextValue < nextId) {
+                jdbcTemplate.execute("ALTER SEQUENCE anime_seq RESTART WITH " + nextId);
+                log.info("anime_seq moved to {}, past the existing anime ids", nextId);
+            }
+        } else {
+            log.warn("Can't check anime_seq on {}, it must start after anime id {}", databaseProductName, nextId - 1);
+        }
+    }
+
+    private String databaseProductName() {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            return "";
+        }
+    }
+}
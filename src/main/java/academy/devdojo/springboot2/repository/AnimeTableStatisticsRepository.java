@@ -0,0 +1,66 @@
+package academy.devdojo.springboot2.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.util.OptionalLong;
+
+/**
+ * Reads the row count the database keeps in its table statistics, far cheaper than COUNT(*) on a big
+ * InnoDB table but only approximate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnimeTableStatisticsRepository {
+    private static final String MYSQL_ESTIMATE = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'anime'";
+    private static final String H2_ESTIMATE = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'ANIME'";
+    private static final String UNSUPPORTED = "";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String estimateQuery;
+
+    /**
+     * @return the estimated number of animes, empty when the database has no statistics we know how to read
+     */
+    public OptionalLong estimatedRowCount() {
+        String query = estimateQuery();
+        if (query.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        Long rows = jdbcTemplate.query(query, resultSet -> resultSet.next() ? resultSet.getLong(1) : null);
+        return rows == null ? OptionalLong.empty() : OptionalLong.of(rows);
+    }
+
+    private String estimateQuery() {
+        String query = estimateQuery;
+        if (query == null) {
+            query = estimateQueryFor(databaseProductName());
+            estimateQuery = query;
+        }
+        return query;
+    }
+
+    private String databaseProductName() {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            return UNSUPPORTED;
+        }
+    }
+
+    private static String estimateQueryFor(String databaseProductName) {
+        if (databaseProductName.startsWith("MySQL")) {
+            return MYSQL_ESTIMATE;
+        }
+        if (databaseProductName.startsWith("H2")) {
+            return H2_ESTIMATE;
+        }
+        return UNSUPPORTED;
+    }
+}
@@ -0,0 +1,152 @@
+package academy.devdojo.springboot2.repository;
+
+import academy.devdojo.springboot2.domain.Anime;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the anime table through R2DBC, mirroring the queries of {@link AnimeRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "devdojo.reactive.enabled", havingValue = "true")
+public class ReactiveAnimeRepository {
+    /**
+     * Same increment as the pooled-lo generator of Anime: each value read from anime_seq starts a block of ids
+     * owned by whoever read it, handed out one by one before the sequence is called again.
+     */
+    static final int ID_BLOCK_SIZE = 50;
+    private static final String COLUMNS = "id, name, normalized_name, version";
+
+    private final DatabaseClient databaseClient;
+    private final Object idBlockLock = new Object();
+    private long nextIdInBlock;
+    private long idBlockEnd;
+
+    public Flux<Anime> findAll(Pageable pageable) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM anime ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Flux<Anime> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM anime")
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM anime")
+                .map(row -> row.get(0, Number.class).longValue())
+                .one();
+    }
+
+    public Mono<Anime> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM anime WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveAnimeRepository::toAnime)
+                .one();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM anime WHERE name = :name")
+                .bind("name", name)
+                .map(ReactiveAnimeRepository::toAnime)
+                .all();
+    }
+
+    public Mono<Anime> save(Anime anime) {
+        return nextId().flatMap(id -> databaseClient
+                .sql("INSERT INTO anime (id, name, normalized_name, version) VALUES (:id, :name, :normalizedName, 0)")
+                .bind("id", id)
+                .bind("name", anime.getName())
+                .bind("normalizedName", Anime.normalizeName(anime.getName()))
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(Anime.builder()
+                        .id(id)
+                        .name(anime.getName())
+                        .normalizedName(Anime.normalizeName(anime.getName()))
+                        .version(0L)
+                        .build()));
+    }
+
+    /**
+     * Optimistic locking like the @Version of Anime: when the anime has a version, only that version is updated.
+     */
+    public Mono<Integer> update(Anime anime) {
+        String update = "UPDATE anime SET name = :name, normalized_name = :normalizedName, version = version + 1 " +
+                "WHERE id = :id" + (anime.getVersion() == null ? "" : " AND version = :version");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(update)
+                .bind("id", anime.getId())
+                .bind("name", anime.getName())
+                .bind("normalizedName", Anime.normalizeName(anime.getName()));
+        if (anime.getVersion() != null) {
+            spec = spec.bind("version", anime.getVersion());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM anime WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Two inserts finding the block used up at the same time both call the sequence, the block read first is then
+     * dropped, like the one of an instance that stops.
+     */
+    private Mono<Long> nextId() {
+        synchronized (idBlockLock) {
+            if (nextIdInBlock < idBlockEnd) {
+                return Mono.just(nextIdInBlock++);
+            }
+        }
+        return nextIdBlock().map(blockStart -> {
+            synchronized (idBlockLock) {
+                nextIdInBlock = blockStart + 1;
+                idBlockEnd = blockStart + ID_BLOCK_SIZE;
+            }
+            return blockStart;
+        });
+    }
+
+    private Mono<Long> nextIdBlock() {
+        if (databaseClient.getConnectionFactory().getMetadata().getName().toLowerCase().contains("mysql")) {
+            // MySQL has no sequences, Hibernate keeps the next value in the anime_seq table
+            return databaseClient.inConnection(connection -> Mono.from(connection
+                    .createStatement("UPDATE anime_seq SET next_val = LAST_INSERT_ID(next_val + " + ID_BLOCK_SIZE + ")")
+                    .execute())
+                    .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                    .then(Mono.from(connection.createStatement("SELECT LAST_INSERT_ID() - " + ID_BLOCK_SIZE).execute()))
+                    .flatMap(ReactiveAnimeRepository::firstLong));
+        }
+        return databaseClient.sql("SELECT NEXT VALUE FOR anime_seq")
+                .map(row -> row.get(0, Number.class).longValue())
+                .one();
+    }
+
+    private static Mono<Long> firstLong(Result result) {
+        return Mono.from(result.map((row, metadata) -> row.get(0, Number.class).longValue()));
+    }
+
+    private static Anime toAnime(Row row) {
+        return Anime.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .normalizedName(row.get("normalized_name", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
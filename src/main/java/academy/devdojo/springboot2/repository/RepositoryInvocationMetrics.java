@@ -0,0 +1,38 @@
+package academy.devdojo.springboot2.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times every Spring Data repository method (derived queries, @Query methods and the CRUD methods) into the
+ * spring.data.repository.invocations timer, tagged with the repository, the method, the state (SUCCESS,
+ * ERROR, CANCELED) and the exception. Name and tags are the ones Spring Boot uses from 2.5 on.
+ */
+@RequiredArgsConstructor
+public class RepositoryInvocationMetrics implements RepositoryMethodInvocationListener {
+    public static final String METRIC_NAME = "spring.data.repository.invocations";
+    private static final Tag NO_EXCEPTION = Tag.of("exception", "None");
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        Throwable error = invocation.getResult().getError();
+        Tags tags = Tags.of(
+                Tag.of("repository", invocation.getRepositoryInterface().getSimpleName()),
+                Tag.of("method", invocation.getMethod().getName()),
+                Tag.of("state", invocation.getResult().getState().name()),
+                error == null ? NO_EXCEPTION : Tag.of("exception", error.getClass().getSimpleName()));
+        Timer.builder(METRIC_NAME)
+                .tags(tags)
+                .register(meterRegistry.get())
+                .record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,23 @@
+package academy.devdojo.springboot2.requests;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBatchPostRequestBody {
+    @NotEmpty(message = "The animes can't be empty")
+    @Size(max = 10000, message = "The maximum number of animes per batch is 10000")
+    @Schema(description = "The animes to be saved in a single transaction", required = true)
+    private List<@Valid AnimePostRequestBody> animes;
+}
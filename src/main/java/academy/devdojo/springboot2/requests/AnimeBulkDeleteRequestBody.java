@@ -0,0 +1,33 @@
+package academy.devdojo.springboot2.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBulkDeleteRequestBody {
+    @Size(max = 10000, message = "The maximum number of ids per request is 10000")
+    @Schema(description = "The ids of the animes to be deleted")
+    private List<@NotNull Long> ids;
+    @Schema(description = "Delete every anime with exactly this name", example = "Naruto")
+    private String name;
+
+    @JsonIgnore
+    @AssertTrue(message = "Send either a non empty list of ids or a name")
+    public boolean isIdsOrName() {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        boolean hasName = name != null && !name.isEmpty();
+        return hasIds != hasName;
+    }
+}
@@ -0,0 +1,24 @@
+package academy.devdojo.springboot2.requests;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimePatchRequestBody {
+    @NotEmpty(message = "The anime name can't be empty")
+    @Schema(description = "This is the anime's new name", example = "Naruto", required = true)
+    private String name;
+    /**
+     * Version the client last read, the update fails when the anime changed since. Taken from If-Match when present.
+     */
+    @Schema(description = "Only update when the anime still has this version")
+    private Long version;
+}
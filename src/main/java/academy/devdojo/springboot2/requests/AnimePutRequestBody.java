@@ -8,4 +8,8 @@ import lombok.Data;
 public class AnimePutRequestBody {
     private Long id;
     private String name;
+    /**
+     * Version the client last read, the update fails when the anime changed since. Taken from If-Match when present.
+     */
+    private Long version;
 }
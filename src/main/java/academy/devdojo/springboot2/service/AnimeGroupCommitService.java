@@ -0,0 +1,252 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.GatewayTimeoutException;
+import academy.devdojo.springboot2.exception.ServiceUnavailableException;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in (devdojo.animes.group-commit.enabled) group commit of POST /animes: the request threads queue their
+ * anime and wait while a single committer saves everything queued in one {@link AnimeService#saveAll}
+ * transaction, every max-batch-size animes or max-delay after the first one, so concurrent saves share the
+ * commit and its fsync. When a group fails it is retried one anime per transaction, each caller gets its own
+ * anime or exception. A full queue, a save still queued after save-timeout or when the service stops are answered
+ * with {@link ServiceUnavailableException}. A save whose group was already being committed after save-timeout is
+ * answered with {@link GatewayTimeoutException}: it may still be committed, so it must not be retried blindly.
+ */
+@Log4j2
+@Service
+public class AnimeGroupCommitService {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final AnimeService animeService;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final Duration saveTimeout;
+    private final BlockingQueue<PendingSave> queue;
+    private DistributionSummary batchSize;
+    private Timer commitTimer;
+    private Counter rejected;
+    private Counter timedOut;
+    private volatile boolean running;
+    private Thread committer;
+
+    @Autowired
+    public AnimeGroupCommitService(AnimeService animeService, MeterRegistry meterRegistry,
+                                   @Value("${devdojo.animes.group-commit.enabled:false}") boolean enabled,
+                                   @Value("${devdojo.animes.group-commit.max-batch-size:50}") int maxBatchSize,
+                                   @Value("${devdojo.animes.group-commit.max-delay:5ms}") Duration maxDelay,
+                                   @Value("${devdojo.animes.group-commit.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${devdojo.animes.group-commit.save-timeout:10s}") Duration saveTimeout) {
+        this.animeService = animeService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.saveTimeout = saveTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Waits until the group holding the anime is committed, saves it in its own transaction when disabled.
+     * After save-timeout the anime is taken out of the queue if it is still there, otherwise its group may
+     * still be committed and the outcome is unknown.
+     */
+    public Anime save(AnimePostRequestBody animePostRequestBody) {
+        if (!enabled) {
+            return animeService.save(animePostRequestBody);
+        }
+        PendingSave pendingSave = new PendingSave(animePostRequestBody);
+        if (!running || !queue.offer(pendingSave)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many animes waiting to be saved, try again later");
+        }
+        try {
+            return pendingSave.result.get(saveTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            if (queue.remove(pendingSave)) {
+                throw new ServiceUnavailableException("The anime was not saved within " + saveTimeout + ", try again later");
+            }
+            throw new GatewayTimeoutException("The anime was being saved when " + saveTimeout +
+                    " passed, the outcome is unknown: look it up before sending it again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queue.remove(pendingSave)) {
+                throw new ServiceUnavailableException("Interrupted while the anime was waiting to be saved");
+            }
+            throw new GatewayTimeoutException("Interrupted while the anime was being saved, the outcome is unknown");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        batchSize = DistributionSummary.builder("devdojo.animes.group.commit.size")
+                .description("Animes saved per group commit")
+                .register(meterRegistry);
+        commitTimer = Timer.builder("devdojo.animes.group.commit").register(meterRegistry);
+        rejected = Counter.builder("devdojo.animes.group.commit.rejected")
+                .description("Saves rejected because the queue was full")
+                .register(meterRegistry);
+        timedOut = Counter.builder("devdojo.animes.group.commit.timed.out")
+                .description("Saves that were not committed within save-timeout")
+                .register(meterRegistry);
+        Gauge.builder("devdojo.animes.group.commit.queue", queue, BlockingQueue::size)
+                .description("Animes waiting for the committer")
+                .register(meterRegistry);
+        running = true;
+        committer = new Thread(this::commitUntilStopped, "anime-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        running = false;
+        committer.join(IDLE_POLL_MILLIS + maxDelay.toMillis() + 10_000);
+        // queued after the committer drained the queue, or left behind by a committer that didn't finish in time
+        List<PendingSave> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        ServiceUnavailableException stopped =
+                new ServiceUnavailableException("Animes are no longer saved, the service is stopping");
+        leftovers.forEach(pendingSave -> pendingSave.result.completeExceptionally(stopped));
+    }
+
+    /**
+     * Anything a commit throws, Errors included, fails the futures of its group and the committer goes on with the
+     * next one, it never dies with callers still waiting.
+     */
+    private void commitUntilStopped() {
+        List<PendingSave> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collect(group);
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                commitOrFail(group);
+            } catch (Throwable e) {
+                fail(group, e);
+            }
+        }
+        // saves queued before the last requests saw running == false
+        while (queue.drainTo(group, maxBatchSize) > 0) {
+            commitOrFail(group);
+        }
+    }
+
+    private void commitOrFail(List<PendingSave> group) {
+        try {
+            commit(group);
+        } catch (Throwable e) {
+            fail(group, e);
+        }
+    }
+
+    private void fail(List<PendingSave> group, Throwable e) {
+        log.error("Group commit of {} animes failed", group.size(), e);
+        group.forEach(pendingSave -> pendingSave.result.completeExceptionally(e));
+        group.clear();
+    }
+
+    /**
+     * Waits for a first anime, then for the group to fill up or max-delay to pass.
+     */
+    private void collect(List<PendingSave> group) throws InterruptedException {
+        PendingSave first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        group.add(first);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (group.size() < maxBatchSize) {
+            if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            PendingSave next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingSave> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        batchSize.record(group.size());
+        try {
+            List<AnimePostRequestBody> animes = group.stream().map(pendingSave -> pendingSave.request)
+                    .collect(Collectors.toList());
+            List<Anime> savedAnimes = commitTimer.recordCallable(() ->
+                    animeService.saveAll(new AnimeBatchPostRequestBody(animes)));
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(savedAnimes.get(i));
+            }
+        } catch (Exception e) {
+            log.warn("Group commit of {} animes failed, saving them one by one: {}", group.size(), e.getMessage());
+            group.forEach(this::commitAlone);
+        }
+        group.clear();
+    }
+
+    private void commitAlone(PendingSave pendingSave) {
+        try {
+            pendingSave.result.complete(animeService.save(pendingSave.request));
+        } catch (Exception e) {
+            pendingSave.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class PendingSave {
+        private final AnimePostRequestBody request;
+        private final CompletableFuture<Anime> result = new CompletableFuture<>();
+
+        private PendingSave(AnimePostRequestBody request) {
+            this.request = request;
+        }
+    }
+}
@@ -1,52 +1,237 @@
 package academy.devdojo.springboot2.service;
 
 import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.domain.AnimeSearchMode;
+import academy.devdojo.springboot2.domain.PageTotals;
 import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
 import academy.devdojo.springboot2.mapper.AnimeMapper;
 import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
 import academy.devdojo.springboot2.requests.AnimePostRequestBody;
 import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.util.AnimeCursor;
+import academy.devdojo.springboot2.wrapper.ApproximatePage;
+import academy.devdojo.springboot2.wrapper.CursorPageResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = AnimeService.ANIME_CACHE)
 public class AnimeService {
+    public static final String ANIME_CACHE = "animes";
+    private static final int BATCH_FLUSH_SIZE = 500;
+    /**
+     * Ids per DELETE ... WHERE id IN (...), keeps the statement well below the bind parameter limits.
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
     private final AnimeRepository animeRepository;
     private final AnimeMapper animeMapper;
+    private final EntityManager entityManager;
+    private final AnimeTotalsService animeTotalsService;
 
-    public Page<Anime> listAll(Pageable pageable) {
-        return animeRepository.findAll(pageable);
+    /**
+     * Paged list whose total is obtained according to {@code totals}, the configured default when null.
+     * Only EXACT runs a COUNT query per page, NONE returns a Slice without any total.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Anime> listAll(Pageable pageable, PageTotals totals) {
+        PageTotals effectiveTotals = totals == null ? animeTotalsService.getDefaultTotals() : totals;
+        switch (effectiveTotals) {
+            case CACHED:
+                return new ApproximatePage<>(animeRepository.findAllBy(pageable), animeTotalsService.cachedCount());
+            case ESTIMATED:
+                return new ApproximatePage<>(animeRepository.findAllBy(pageable), animeTotalsService.estimatedCount());
+            case NONE:
+                return animeRepository.findAllBy(pageable);
+            default:
+                return animeRepository.findAll(pageable);
+        }
     }
 
+    /**
+     * Keyset pagination: seeks past the last returned row instead of using OFFSET and never runs a COUNT.
+     * One extra row is fetched to find out whether there is a next page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<Anime> listByCursor(String cursor, int size, AnimeCursor.Sort sort) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        AnimeCursor.Sort effectiveSort = sort;
+        List<Anime> animes;
+        if (cursor == null || cursor.isEmpty()) {
+            animes = effectiveSort == AnimeCursor.Sort.NAME
+                    ? animeRepository.findAllByOrderByNameAscIdAsc(limit)
+                    : animeRepository.findAllByOrderByIdAsc(limit);
+        } else {
+            AnimeCursor animeCursor = AnimeCursor.decode(cursor);
+            effectiveSort = animeCursor.getSort();
+            animes = effectiveSort == AnimeCursor.Sort.NAME
+                    ? animeRepository.findAfterNameAndId(animeCursor.getName(), animeCursor.getId(), limit)
+                    : animeRepository.findByIdGreaterThanOrderByIdAsc(animeCursor.getId(), limit);
+        }
+
+        boolean hasNext = animes.size() > size;
+        List<Anime> content = hasNext ? animes.subList(0, size) : animes;
+        String nextCursor = hasNext ? AnimeCursor.after(content.get(size - 1), effectiveSort).encode() : null;
+        return new CursorPageResponse<>(content, size, hasNext, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
     public List<Anime> listAllNonPageable() {
         return animeRepository.findAll();
     }
 
+    /**
+     * Reads the animes through a database cursor and hands them one by one to the consumer,
+     * detaching each entity so the persistence context does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Anime> consumer) {
+        try (Stream<Anime> animes = animeRepository.streamAll()) {
+            animes.forEach(anime -> {
+                consumer.accept(anime);
+                entityManager.detach(anime);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<Anime> findByName(String name) {
         return animeRepository.findByName(name);
     }
 
+    /**
+     * Case insensitive search on the indexed normalized name. Prefix searches can use the index,
+     * contains searches still need to scan it.
+     */
+    @Transactional(readOnly = true)
+    public Page<Anime> search(String name, AnimeSearchMode mode, Pageable pageable) {
+        String normalizedName = Anime.normalizeName(name);
+        if (mode == AnimeSearchMode.CONTAINS) {
+            return animeRepository.findByNormalizedNameContaining(normalizedName, pageable);
+        }
+        return animeRepository.findByNormalizedNameStartingWith(normalizedName, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(key = "#id")
     public Anime findByIdOrThrowBadRequestException(long id) {
         return animeRepository.findById(id).orElseThrow(() -> new BadRequestException("Anime not found"));
     }
 
     @Transactional
+    @Caching(put = @CachePut(key = "#result.id"),
+            evict = @CacheEvict(cacheNames = AnimeTotalsService.ANIME_TOTALS_CACHE, allEntries = true))
     public Anime save(AnimePostRequestBody animePostRequestBody) {
         return animeRepository.save(animeMapper.toAnime(animePostRequestBody));
     }
 
+    /**
+     * Persists all the animes in one transaction. Hibernate groups the inserts in JDBC batches
+     * (hibernate.jdbc.batch_size) and the persistence context is flushed and cleared every
+     * BATCH_FLUSH_SIZE animes to keep it small.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = AnimeTotalsService.ANIME_TOTALS_CACHE, allEntries = true)
+    public List<Anime> saveAll(AnimeBatchPostRequestBody animeBatchPostRequestBody) {
+        List<Anime> animes = animeMapper.toAnimes(animeBatchPostRequestBody);
+        List<Anime> savedAnimes = new ArrayList<>(animes.size());
+        for (int from = 0; from < animes.size(); from += BATCH_FLUSH_SIZE) {
+            List<Anime> chunk = animes.subList(from, Math.min(from + BATCH_FLUSH_SIZE, animes.size()));
+            savedAnimes.addAll(animeRepository.saveAll(chunk));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return savedAnimes;
+    }
+
+    /**
+     * Single DELETE statement, deleteById would load the anime first.
+     */
+    @Transactional
+    @Caching(evict = {@CacheEvict(key = "#id"),
+            @CacheEvict(cacheNames = AnimeTotalsService.ANIME_TOTALS_CACHE, allEntries = true)})
     public void delete(Long id) {
-        animeRepository.deleteById(id);
+        if (animeRepository.bulkDeleteByIds(Collections.singletonList(id)) == 0) {
+            throw new BadRequestException("Anime not found");
+        }
+    }
+
+    /**
+     * Set based deletes by id, in chunks of DELETE_CHUNK_SIZE, or by name, all in one transaction.
+     *
+     * @return the number of animes deleted
+     */
+    @Transactional
+    @Caching(evict = {@CacheEvict(allEntries = true),
+            @CacheEvict(cacheNames = AnimeTotalsService.ANIME_TOTALS_CACHE, allEntries = true)})
+    public int deleteAll(AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody) {
+        if (animeBulkDeleteRequestBody.getName() != null && !animeBulkDeleteRequestBody.getName().isEmpty()) {
+            return animeRepository.bulkDeleteByName(animeBulkDeleteRequestBody.getName());
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(animeBulkDeleteRequestBody.getIds()));
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            deleted += animeRepository.bulkDeleteByIds(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+        }
+        return deleted;
     }
 
+    /**
+     * Renames with a single UPDATE instead of load and merge, not found is detected from the affected rows.
+     * Only when a version was sent and nothing was updated, one more query tells a stale version from a missing anime.
+     */
+    @Transactional
+    @CacheEvict(key = "#id")
+    public void patch(long id, AnimePatchRequestBody animePatchRequestBody) {
+        String name = animePatchRequestBody.getName();
+        Long version = animePatchRequestBody.getVersion();
+        int updated = version == null
+                ? animeRepository.updateName(id, name, Anime.normalizeName(name))
+                : animeRepository.updateNameIfVersion(id, name, Anime.normalizeName(name), version);
+        if (updated == 0) {
+            if (version != null && animeRepository.existsById(id)) {
+                throw new PreconditionFailedException("Anime was modified, it no longer has version " + version);
+            }
+            throw new BadRequestException("Anime not found");
+        }
+    }
+
+    /**
+     * Loads the anime, checks the version sent and renames the managed entity in one transaction: the update is
+     * flushed on commit with the version in its WHERE clause, so a concurrent change still fails it.
+     */
+    @Transactional
+    @CacheEvict(key = "#animePutRequestBody.id")
     public Anime replace(AnimePutRequestBody animePutRequestBody) {
-        findByIdOrThrowBadRequestException(animePutRequestBody.getId());
-        return animeRepository.save(animeMapper.toAnime(animePutRequestBody));
+        Anime savedAnime = animeRepository.findById(animePutRequestBody.getId())
+                .orElseThrow(() -> new BadRequestException("Anime not found"));
+        Long version = animePutRequestBody.getVersion();
+        if (version != null && !version.equals(savedAnime.getVersion())) {
+            throw new PreconditionFailedException("Anime was modified, the current version is " + savedAnime.getVersion());
+        }
+        savedAnime.setName(animePutRequestBody.getName());
+        return savedAnime;
     }
 }
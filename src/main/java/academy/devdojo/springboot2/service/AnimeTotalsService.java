@@ -0,0 +1,48 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.PageTotals;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.repository.AnimeTableStatisticsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Total number of animes for the paged list, see {@link PageTotals}.
+ * The cached total is evicted by the writes of {@link AnimeService}.
+ */
+@Service
+@CacheConfig(cacheNames = AnimeTotalsService.ANIME_TOTALS_CACHE)
+public class AnimeTotalsService {
+    public static final String ANIME_TOTALS_CACHE = "animeTotals";
+    private final AnimeRepository animeRepository;
+    private final AnimeTableStatisticsRepository animeTableStatisticsRepository;
+    private final PageTotals defaultTotals;
+
+    @Autowired
+    public AnimeTotalsService(AnimeRepository animeRepository,
+                              AnimeTableStatisticsRepository animeTableStatisticsRepository,
+                              @Value("${devdojo.animes.totals.policy:exact}") PageTotals defaultTotals) {
+        this.animeRepository = animeRepository;
+        this.animeTableStatisticsRepository = animeTableStatisticsRepository;
+        this.defaultTotals = defaultTotals;
+    }
+
+    public PageTotals getDefaultTotals() {
+        return defaultTotals;
+    }
+
+    @Cacheable(key = "'count'")
+    public long cachedCount() {
+        return animeRepository.count();
+    }
+
+    /**
+     * Falls back to COUNT(*) when the database statistics can't be read.
+     */
+    public long estimatedCount() {
+        return animeTableStatisticsRepository.estimatedRowCount().orElseGet(animeRepository::count);
+    }
+}
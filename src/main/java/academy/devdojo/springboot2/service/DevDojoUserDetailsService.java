@@ -1,22 +1,63 @@
 package academy.devdojo.springboot2.service;
 
+import academy.devdojo.springboot2.domain.DevDojoUser;
 import academy.devdojo.springboot2.repository.DevDojoUserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 @Service
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = DevDojoUserDetailsService.USER_CACHE)
 public class DevDojoUserDetailsService implements UserDetailsService {
+    public static final String USER_CACHE = "users";
+    public static final String UNKNOWN_USER_CACHE = "unknown-users";
     private final DevDojoUserRepository devDojoUserRepository;
+    private final CacheManager cacheManager;
 
+    /**
+     * Cached, so only the first authentication of a user reads the database. Users that are not found are kept
+     * in the unknown-users cache, whose short TTL bounds how long a user created on another instance is refused.
+     */
     @Override
+    @Cacheable(key = "#userName")
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
-        return Optional.ofNullable(devDojoUserRepository.findByUserName(userName))
-                .orElseThrow(() -> new UsernameNotFoundException("DevDojo User not found."));
+        Cache unknownUsers = cacheManager.getCache(UNKNOWN_USER_CACHE);
+        if (unknownUsers != null && unknownUsers.get(userName) != null) {
+            throw new UsernameNotFoundException("DevDojo User not found.");
+        }
+        DevDojoUser devDojoUser = devDojoUserRepository.findByUserName(userName);
+        if (devDojoUser == null) {
+            if (unknownUsers != null) {
+                unknownUsers.put(userName, Boolean.TRUE);
+            }
+            throw new UsernameNotFoundException("DevDojo User not found.");
+        }
+        return devDojoUser;
+    }
+
+    /**
+     * Must be called after the user is created or its password or authorities are changed.
+     */
+    @Caching(evict = {
+            @CacheEvict(key = "#userName"),
+            @CacheEvict(cacheNames = UNKNOWN_USER_CACHE, key = "#userName")
+    })
+    public void evict(String userName) {
+    }
+
+    @Caching(evict = {
+            @CacheEvict(allEntries = true),
+            @CacheEvict(cacheNames = UNKNOWN_USER_CACHE, allEntries = true)
+    })
+    public void evictAll() {
     }
 }
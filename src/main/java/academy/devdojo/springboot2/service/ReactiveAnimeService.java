@@ -0,0 +1,99 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
+import academy.devdojo.springboot2.mapper.AnimeMapper;
+import academy.devdojo.springboot2.repository.ReactiveAnimeRepository;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * The writes keep the animes and animeTotals caches of {@link AnimeService} up to date the way its annotations do,
+ * the cache annotations can't wait for a Mono.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "devdojo.reactive.enabled", havingValue = "true")
+public class ReactiveAnimeService {
+    private final ReactiveAnimeRepository reactiveAnimeRepository;
+    private final AnimeMapper animeMapper;
+    private final CacheManager cacheManager;
+
+    public Mono<Page<Anime>> listAll(Pageable pageable) {
+        return Mono.zip(reactiveAnimeRepository.findAll(pageable).collectList(), reactiveAnimeRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    public Flux<Anime> listAllNonPageable() {
+        return reactiveAnimeRepository.findAll();
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return reactiveAnimeRepository.findByName(name);
+    }
+
+    public Mono<Anime> findByIdOrThrowBadRequestException(long id) {
+        return reactiveAnimeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not found")));
+    }
+
+    public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+        return reactiveAnimeRepository.save(animeMapper.toAnime(animePostRequestBody))
+                .doOnNext(saved -> {
+                    cache(AnimeService.ANIME_CACHE).put(saved.getId(), saved);
+                    cache(AnimeTotalsService.ANIME_TOTALS_CACHE).clear();
+                });
+    }
+
+    public Mono<Void> delete(long id) {
+        return reactiveAnimeRepository.deleteById(id)
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        return Mono.error(new BadRequestException("Anime not found"));
+                    }
+                    cache(AnimeService.ANIME_CACHE).evict(id);
+                    cache(AnimeTotalsService.ANIME_TOTALS_CACHE).clear();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * When a version was sent and nothing was updated, one more query tells a stale version from a missing anime.
+     */
+    public Mono<Anime> replace(AnimePutRequestBody animePutRequestBody) {
+        Anime anime = animeMapper.toAnime(animePutRequestBody);
+        return reactiveAnimeRepository.update(anime)
+                .doOnNext(updated -> cache(AnimeService.ANIME_CACHE).evict(anime.getId()))
+                .flatMap(updated -> updated == 0
+                        ? notUpdated(anime)
+                        : reactiveAnimeRepository.findById(anime.getId()));
+    }
+
+    private Mono<Anime> notUpdated(Anime anime) {
+        if (anime.getVersion() == null) {
+            return Mono.error(new BadRequestException("Anime not found"));
+        }
+        return reactiveAnimeRepository.findById(anime.getId())
+                .flatMap(current -> Mono.<Anime>error(new PreconditionFailedException(
+                        "Anime was modified, the current version is " + current.getVersion())))
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not found")));
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+}
@@ -0,0 +1,116 @@
+package academy.devdojo.springboot2.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies stateless HMAC-SHA256 signed tokens, so the password hash is checked once at login
+ * and every following request only pays for an HMAC.
+ * <p>
+ * Token format: base64url(expiresAt \n authorities \n username) . base64url(signature)
+ */
+@Service
+@Log4j2
+public class TokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(@Value("${devdojo.security.token.secret:}") String secret,
+                        @Value("${devdojo.security.token.ttl:15m}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secretBytes(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public String createToken(Authentication authentication) {
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        byte[] payload = (expiresAt + "\n" + authorities + "\n" + authentication.getName()).getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+    }
+
+    /**
+     * @return a PreAuthenticatedAuthenticationToken, unlike the UsernamePasswordAuthenticationToken of a checked
+     * password, so POST /auth/token can't renew a token with itself
+     */
+    public Optional<Authentication> parseToken(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(token.substring(0, separator));
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\n", 3);
+            if (Long.parseLong(parts[0]) < clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(new PreAuthenticatedAuthenticationToken(parts[2], null,
+                    AuthorityUtils.commaSeparatedStringToAuthorityList(parts[1])));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign the token", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            log.warn("devdojo.security.token.secret is not set, using a random key: tokens are only valid on this instance until it restarts");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("devdojo.security.token.secret must have at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return bytes;
+    }
+}
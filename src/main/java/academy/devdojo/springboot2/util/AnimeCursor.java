@@ -0,0 +1,50 @@
+package academy.devdojo.springboot2.util;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last anime returned by a keyset page, serialized as an opaque url-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public class AnimeCursor {
+    private static final char SEPARATOR = ':';
+
+    private final Sort sort;
+    private final long id;
+    private final String name;
+
+    public enum Sort {
+        ID, NAME
+    }
+
+    public static AnimeCursor after(Anime anime, Sort sort) {
+        return new AnimeCursor(sort, anime.getId(), sort == Sort.NAME ? anime.getName() : null);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + (name == null ? "" : SEPARATOR + name);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AnimeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+            Sort sort = Sort.valueOf(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            if (sort == Sort.NAME) {
+                return new AnimeCursor(sort, id, parts[2]);
+            }
+            return new AnimeCursor(sort, id, null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package academy.devdojo.springboot2.util;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * ETags built from the version column: a strong "id-version" for an anime, and for a page a weak digest of
+ * the page request, the total (or whether there is a next slice) and the id and version of every anime in it.
+ * The page ETag is weak because the same page is sent as JSON or Smile, gzipped or not; Tomcat doesn't
+ * compress responses with a strong ETag.
+ */
+public final class AnimeETag {
+    private static final String ANY = "*";
+
+    private AnimeETag() {
+    }
+
+    public static String of(Anime anime) {
+        return of(anime.getId(), anime.getVersion());
+    }
+
+    public static String of(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String of(Slice<Anime> page) {
+        StringBuilder content = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getSort()).append(':');
+        if (page instanceof Page) {
+            content.append(((Page<Anime>) page).getTotalElements());
+        } else {
+            content.append(page.hasNext() ? "next" : "last");
+        }
+        for (Anime anime : page.getContent()) {
+            content.append(';').append(anime.getId()).append('-').append(anime.getVersion());
+        }
+        byte[] digest = sha256(content.toString().getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+    }
+
+    /**
+     * Version the If-Match header expects for the anime with the given id, null for "*".
+     *
+     * @throws PreconditionFailedException when the header is not the strong ETag of that anime
+     */
+    public static Long expectedVersion(String ifMatch, Long id) {
+        String eTag = ifMatch.trim();
+        if (ANY.equals(eTag)) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        if (eTag.startsWith(prefix) && eTag.endsWith("\"") && eTag.length() > prefix.length() + 1) {
+            try {
+                return Long.valueOf(eTag.substring(prefix.length(), eTag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the precondition failure
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + ifMatch + " does not match anime " + id);
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -7,7 +7,9 @@ import java.time.format.DateTimeFormatter;
 
 @Component
 public class DateUtil {
+    private static final DateTimeFormatter DATABASE_STYLE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     public String formatLocalDateTimeToDatabaseStyle(LocalDateTime localDateTime) {
-        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(localDateTime);
+        return DATABASE_STYLE.format(localDateTime);
     }
 }
@@ -0,0 +1,98 @@
+package academy.devdojo.springboot2.util;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the JVM uptime when the application is ready and the beans that took the longest to create, not counting
+ * the beans they depend on. Reads the steps recorded by the BufferingApplicationStartup set in main, logs nothing
+ * when the application was started without it (tests).
+ * <p>
+ * devdojo.startup.exit-after-report stops the JVM afterwards, used by the class-data-sharing training run of the
+ * fast-startup Maven profile.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "devdojo.startup.report.enabled", havingValue = "true")
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    private final int heaviestBeans;
+    private final boolean exitAfterReport;
+
+    public StartupReport(@Value("${devdojo.startup.report.heaviest-beans:10}") int heaviestBeans,
+                         @Value("${devdojo.startup.exit-after-report:false}") boolean exitAfterReport) {
+        this.heaviestBeans = heaviestBeans;
+        this.exitAfterReport = exitAfterReport;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Ready {}ms after the JVM started", ManagementFactory.getRuntimeMXBean().getUptime());
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup) {
+            BufferingApplicationStartup startup = (BufferingApplicationStartup) event.getApplicationContext().getApplicationStartup();
+            heaviestBeans(startup.getBufferedTimeline().getEvents(), heaviestBeans)
+                    .forEach(bean -> log.info("Startup bean {} {}ms", bean.getName(), bean.getSelfTime().toMillis()));
+        }
+        if (exitAfterReport) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    /**
+     * Bean instantiations by time spent in the bean itself, the time of the nested steps (its dependencies) excluded.
+     */
+    static List<BeanTime> heaviestBeans(List<StartupTimeline.TimelineEvent> events, int limit) {
+        Map<Long, Duration> nestedTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                nestedTime.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+        List<BeanTime> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATION.equals(step.getName())) {
+                Duration selfTime = event.getDuration().minus(nestedTime.getOrDefault(step.getId(), Duration.ZERO));
+                beans.add(new BeanTime(beanName(step), selfTime));
+            }
+        }
+        return beans.stream()
+                .sorted(Comparator.comparing(BeanTime::getSelfTime).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "unknown";
+    }
+
+    @lombok.Value
+    static class BeanTime {
+        String name;
+        Duration selfTime;
+    }
+}
@@ -0,0 +1,42 @@
+package academy.devdojo.springboot2.wrapper;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Page whose total may be stale or estimated, serialized with "totalExact": false.
+ * Whether there is a next page comes from the slice, never from the total: a total lower than the rows already
+ * seen is raised past them, and on the last page the total is the exact number of elements.
+ */
+public class ApproximatePage<T> extends PageImpl<T> {
+    private final boolean hasNext;
+
+    public ApproximatePage(Slice<T> slice, long total) {
+        super(slice.getContent(), slice.getPageable(), total(slice, total));
+        this.hasNext = slice.hasNext();
+    }
+
+    private static long total(Slice<?> slice, long total) {
+        Pageable pageable = slice.getPageable();
+        long seen = (pageable.isPaged() ? pageable.getOffset() : 0) + slice.getNumberOfElements();
+        if (!slice.hasNext() && slice.hasContent()) {
+            return seen;
+        }
+        return Math.max(total, slice.hasNext() ? seen + 1 : seen);
+    }
+
+    public boolean isTotalExact() {
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext;
+    }
+}
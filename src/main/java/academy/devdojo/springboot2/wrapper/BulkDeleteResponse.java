@@ -0,0 +1,12 @@
+package academy.devdojo.springboot2.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDeleteResponse {
+    private long deleted;
+}
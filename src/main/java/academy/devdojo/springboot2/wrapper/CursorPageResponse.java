@@ -0,0 +1,33 @@
+package academy.devdojo.springboot2.wrapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) page: no total count is computed, the client follows {@code nextCursor}
+ * until {@code hasNext} is false.
+ */
+@Getter
+public class CursorPageResponse<T> {
+    private final List<T> content;
+    private final int size;
+    private final int numberOfElements;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public CursorPageResponse(@JsonProperty("content") List<T> content,
+                              @JsonProperty("size") int size,
+                              @JsonProperty("hasNext") boolean hasNext,
+                              @JsonProperty("nextCursor") String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.numberOfElements = content.size();
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
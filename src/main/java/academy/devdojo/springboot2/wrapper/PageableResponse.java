@@ -10,6 +10,11 @@ import lombok.Setter;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+/**
+ * Client side view of GET /animes for every totals policy: an exact page, an approximate page
+ * ("totalExact": false) or a slice without totalElements, where the total is the smallest one consistent
+ * with the slice and totalKnown is false.
+ */
 @Getter
 @Setter
 public class PageableResponse<T> extends PageImpl<T> {
@@ -17,24 +22,29 @@ public class PageableResponse<T> extends PageImpl<T> {
     private boolean last;
     private int totalPages;
     private int numberOfElements;
+    private boolean totalExact;
+    private boolean totalKnown;
 
     @JsonCreator(mode = Mode.PROPERTIES )
     public PageableResponse(@JsonProperty("content") List<T> content,
                             @JsonProperty("number") int number,
                             @JsonProperty("size") int size,
-                            @JsonProperty("totalElements") int totalElements,
+                            @JsonProperty("totalElements") Long totalElements,
                             @JsonProperty("last") boolean last,
                             @JsonProperty("first") boolean first,
-                            @JsonProperty("totalPages") int totalPages,
+                            @JsonProperty("totalPages") Integer totalPages,
                             @JsonProperty("numberOfElements") int numberOfElements,
+                            @JsonProperty("totalExact") Boolean totalExact,
                             @JsonProperty("pageable") JsonNode pageable,
                             @JsonProperty("sort") JsonNode sort) {
-        super(content, PageRequest.of(number, size), totalElements);
+        super(content, PageRequest.of(number, Math.max(size, 1)),
+                totalElements != null ? totalElements : (long) number * size + content.size() + (last ? 0 : 1));
 
         this.last = last;
         this.first = first;
-        this.totalPages = totalPages;
+        this.totalPages = totalPages != null ? totalPages : super.getTotalPages();
         this.numberOfElements = numberOfElements;
-
+        this.totalKnown = totalElements != null;
+        this.totalExact = totalKnown && (totalExact == null || totalExact);
     }
-}
\ No newline at end of file
+}
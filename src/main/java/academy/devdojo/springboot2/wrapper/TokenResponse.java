@@ -0,0 +1,14 @@
+package academy.devdojo.springboot2.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse {
+    private String token;
+    private String tokenType;
+    private long expiresIn;
+}
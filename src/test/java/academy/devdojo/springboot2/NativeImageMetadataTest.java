@@ -0,0 +1,89 @@
+package academy.devdojo.springboot2;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * The hand-written metadata of the native executable (mvn -Pnative package) goes stale silently: a renamed class,
+ * a changed @JsonCreator constructor or a new repository only fails at runtime in the executable.
+ */
+@DataJpaTest
+@DisplayName("Tests for the native image metadata")
+class NativeImageMetadataTest {
+    private static final String METADATA = "META-INF/native-image/academy.devdojo/springboot2-essentials/";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @DisplayName("reflect-config lists existing classes and constructors")
+    void reflectConfig_ListsExistingClassesAndConstructors_WhenLoaded() throws IOException {
+        JsonNode reflectConfig = read("reflect-config.json");
+
+        assertThat(reflectConfig).isNotEmpty();
+        for (JsonNode entry : reflectConfig) {
+            Class<?> type = ClassUtils.resolveClassName(entry.get("name").asText(), getClass().getClassLoader());
+            for (JsonNode method : entry.path("methods")) {
+                Class<?>[] parameterTypes = new Class<?>[method.get("parameterTypes").size()];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = ClassUtils.resolveClassName(method.get("parameterTypes").get(i).asText(),
+                            getClass().getClassLoader());
+                }
+                assertThatCode(() -> {
+                    if ("<init>".equals(method.get("name").asText())) {
+                        type.getDeclaredConstructor(parameterTypes);
+                    } else {
+                        type.getDeclaredMethod(method.get("name").asText(), parameterTypes);
+                    }
+                }).as("%s.%s", type.getName(), method.get("name").asText()).doesNotThrowAnyException();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("proxy-config lists the interfaces of every repository proxy")
+    void proxyConfig_ListsInterfacesOfEveryRepositoryProxy_WhenContextStarts() throws IOException {
+        List<List<String>> proxies = new ArrayList<>();
+        for (JsonNode interfaces : read("proxy-config.json")) {
+            List<String> names = new ArrayList<>();
+            interfaces.forEach(name -> names.add(name.asText()));
+            proxies.add(names);
+        }
+
+        assertThat(applicationContext.getBeansOfType(Repository.class).values())
+                .isNotEmpty()
+                .allSatisfy(repository -> {
+                    assertThat(Proxy.isProxyClass(repository.getClass())).isTrue();
+                    assertThat(proxies).contains(Arrays.stream(repository.getClass().getInterfaces())
+                            .map(Class::getName)
+                            .collect(Collectors.toList()));
+                });
+    }
+
+    private JsonNode read(String file) throws IOException {
+        try (InputStream inputStream = new ClassPathResource(METADATA + file).getInputStream()) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package academy.devdojo.springboot2.client;
+
+import academy.devdojo.springboot2.client.LoadGeneratorOptions.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class LoadGeneratorOptionsTest {
+
+    @Test
+    @DisplayName("parse throws IllegalArgumentException when seed is 0 and the mix picks seeded animes")
+    void parse_ThrowsIllegalArgumentException_WhenSeedIsZeroAndMixHasFindById() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> LoadGeneratorOptions.parse(new String[]{"--seed=0"}))
+                .withMessageContaining("--seed");
+    }
+
+    @Test
+    @DisplayName("parse accepts seed 0 when the mix doesn't pick seeded animes")
+    void parse_AcceptsSeedZero_WhenMixHasNoSeededOperation() {
+        LoadGeneratorOptions options = LoadGeneratorOptions.parse(new String[]{"--seed=0", "--mix=list:50,save:50"});
+
+        assertThat(options.getSeed()).isZero();
+        assertThat(options.getMix()).containsOnlyKeys(Operation.LIST, Operation.SAVE);
+    }
+}
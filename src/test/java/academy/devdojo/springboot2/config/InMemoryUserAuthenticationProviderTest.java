@@ -0,0 +1,44 @@
+package academy.devdojo.springboot2.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class InMemoryUserAuthenticationProviderTest {
+    private final InMemoryUserAuthenticationProvider inMemoryUserAuthenticationProvider = new InMemoryUserAuthenticationProvider(
+            new InMemoryUserDetailsManager(User.withUsername("devdojo").password("{noop}douglas").roles("USER").build()),
+            PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+    @Test
+    @DisplayName("authenticate returns the authenticated in-memory user when the password matches")
+    void authenticate_ReturnsAuthentication_WhenInMemoryUserMatches() {
+        Authentication authentication = inMemoryUserAuthenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("devdojo", "douglas"));
+
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getName()).isEqualTo("devdojo");
+    }
+
+    @Test
+    @DisplayName("authenticate abstains for a user that is not in memory so the database provider is tried")
+    void authenticate_ReturnsNull_WhenUserIsNotInMemory() {
+        assertThat(inMemoryUserAuthenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("william", "academy"))).isNull();
+    }
+
+    @Test
+    @DisplayName("authenticate throws BadCredentialsException when the password of the in-memory user doesn't match")
+    void authenticate_ThrowsBadCredentialsException_WhenPasswordDoesNotMatch() {
+        assertThatExceptionOfType(BadCredentialsException.class)
+                .isThrownBy(() -> inMemoryUserAuthenticationProvider.authenticate(
+                        new UsernamePasswordAuthenticationToken("devdojo", "academy")));
+    }
+}
@@ -1,10 +1,19 @@
 package academy.devdojo.springboot2.controller;
 
 import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.domain.AnimeSearchMode;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
 import academy.devdojo.springboot2.requests.AnimePostRequestBody;
 import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.service.AnimeGroupCommitService;
 import academy.devdojo.springboot2.service.AnimeService;
-import academy.devdojo.springboot2.util.DateUtil;
+import academy.devdojo.springboot2.util.AnimeCursor;
+import academy.devdojo.springboot2.wrapper.BulkDeleteResponse;
+import academy.devdojo.springboot2.wrapper.CursorPageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,14 +21,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnime;
 import static academy.devdojo.springboot2.util.AnimeCreator.createValidAnime;
 import static academy.devdojo.springboot2.util.AnimePostRequestBodyCreator.createAnimePostRequestBody;
 import static academy.devdojo.springboot2.util.AnimePutRequestBodyCreator.createAnimePutRequestBody;
@@ -27,6 +44,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.*;
 
 @ExtendWith(SpringExtension.class)
@@ -36,44 +54,89 @@ class AnimeControllerTest {
     @Mock
     private AnimeService animeService;
     @Mock
-    private DateUtil dateUtil;
+    private AnimeGroupCommitService animeGroupCommitService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
         PageImpl<Anime> animePage = new PageImpl<>(asList(createValidAnime()));
-        BDDMockito.when(animeService.listAll(any()))
+        BDDMockito.when(animeService.listAll(any(), any()))
                 .thenReturn(animePage);
 
 
+        BDDMockito.when(animeService.listByCursor(any(), anyInt(), any(AnimeCursor.Sort.class)))
+                .thenReturn(new CursorPageResponse<>(asList(createValidAnime()), 1, true, "cursor"));
+
         BDDMockito.when(animeService.findByIdOrThrowBadRequestException(anyLong()))
                 .thenReturn(createValidAnime());
 
         BDDMockito.when(animeService.listAllNonPageable())
                 .thenReturn(asList(createValidAnime()));
 
+        BDDMockito.doAnswer(invocation -> {
+            Consumer<Anime> consumer = invocation.getArgument(0);
+            consumer.accept(createValidAnime());
+            consumer.accept(createAnime());
+            return null;
+        }).when(animeService).streamAll(any());
+
         BDDMockito.when(animeService.findByName(anyString()))
                 .thenReturn(asList(createValidAnime()));
 
+        BDDMockito.when(animeService.search(anyString(), any(AnimeSearchMode.class), any()))
+                .thenReturn(animePage);
+
         BDDMockito.when(animeService.save(any(AnimePostRequestBody.class)))
                 .thenReturn(createValidAnime());
 
+        BDDMockito.when(animeService.saveAll(any(AnimeBatchPostRequestBody.class)))
+                .thenReturn(asList(createValidAnime(), createAnime()));
+
         BDDMockito.when(animeService.replace(any(AnimePutRequestBody.class)))
                 .thenReturn(createValidAnime());
 
         BDDMockito.doNothing().when(animeService).delete(anyLong());
+
+        BDDMockito.when(animeService.deleteAll(any(AnimeBulkDeleteRequestBody.class)))
+                .thenReturn(2);
     }
 
     @Test
     @DisplayName("List return list of anime inside page object when successful")
     void list_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
         String expectedName = createValidAnime().getName();
-        Page<Anime> animePage = animeController.list(null).getBody();
+        Slice<Anime> animePage = animeController.list(null, null).getBody();
 
         assertThat(animePage).isNotNull();
         assertThat(animePage.toList()).isNotEmpty().hasSize(1);
         assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("List return page ETag that changes when an anime version changes")
+    void list_ReturnsPageETagThatChanges_WhenAnimeVersionChanges() {
+        String eTag = animeController.list(null, null).getHeaders().getETag();
+        assertThat(eTag).isNotNull().isEqualTo(animeController.list(null, null).getHeaders().getETag());
+
+        Anime updatedAnime = createValidAnime();
+        updatedAnime.setVersion(1L);
+        BDDMockito.when(animeService.listAll(any(), any()))
+                .thenReturn(new PageImpl<>(asList(updatedAnime)));
+
+        assertThat(animeController.list(null, null).getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("listByCursor return page of anime with next cursor when successful")
+    void listByCursor_ReturnsPageOfAnimeWithNextCursor_WhenSuccessful() {
+        CursorPageResponse<Anime> animePage = animeController.listByCursor(null, 1, AnimeCursor.Sort.ID).getBody();
+
+        assertThat(animePage).isNotNull();
+        assertThat(animePage.getContent()).isNotEmpty().hasSize(1);
+        assertThat(animePage.getNextCursor()).isEqualTo("cursor");
+    }
+
     @Test
     @DisplayName("ListAll return list of anime when successful")
     void listAll_ReturnsListOfAnimes_WhenSuccessful() {
@@ -84,6 +147,33 @@ class AnimeControllerTest {
         assertThat(animeList.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("streamAll write a json array of anime when successful")
+    void streamAll_WritesJsonArrayOfAnime_WhenSuccessful() throws IOException {
+        StreamingResponseBody body = animeController.streamAll().getBody();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertThat(body).isNotNull();
+        body.writeTo(outputStream);
+
+        Anime[] animes = objectMapper.readValue(outputStream.toByteArray(), Anime[].class);
+        assertThat(animes).containsExactly(createValidAnime(), createAnime());
+    }
+
+    @Test
+    @DisplayName("streamAllNdjson write one anime per line when successful")
+    void streamAllNdjson_WritesOneAnimePerLine_WhenSuccessful() throws IOException {
+        StreamingResponseBody body = animeController.streamAllNdjson().getBody();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertThat(body).isNotNull();
+        body.writeTo(outputStream);
+
+        String[] lines = outputStream.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[1], Anime.class)).isEqualTo(createAnime());
+    }
+
     @Test
     @DisplayName("findById return anime when successful")
     void findById_ReturnsAnime_WhenSuccessful() {
@@ -94,6 +184,19 @@ class AnimeControllerTest {
         assertThat(anime.getId()).isNotNull().isEqualTo(expectedId);
     }
 
+    @Test
+    @DisplayName("findById return the anime id and version as ETag when successful")
+    void findById_ReturnsETag_WhenSuccessful() {
+        Anime anime = createValidAnime();
+        anime.setVersion(2L);
+        BDDMockito.when(animeService.findByIdOrThrowBadRequestException(anyLong()))
+                .thenReturn(anime);
+
+        ResponseEntity<Anime> entity = animeController.findById(1L);
+
+        assertThat(entity.getHeaders().getETag()).isEqualTo("\"1-2\"");
+    }
+
     @Test
     @DisplayName("findByName return list of anime when successful")
     void findByName_ReturnsListOfAnime_WhenSuccessful() {
@@ -115,6 +218,17 @@ class AnimeControllerTest {
         assertThat(animeList).isNotNull().isEmpty();
     }
 
+    @Test
+    @DisplayName("search return page of anime when successful")
+    void search_ReturnsPageOfAnime_WhenSuccessful() {
+        String expectedName = createValidAnime().getName();
+        Page<Anime> animePage = animeController.search("hajime", AnimeSearchMode.PREFIX, null).getBody();
+
+        assertThat(animePage).isNotNull();
+        assertThat(animePage.toList()).hasSize(1);
+        assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
+    }
+
     @Test
     @DisplayName("save return anime when successful")
     void save_ReturnsAnime_WhenSuccessful() {
@@ -123,14 +237,90 @@ class AnimeControllerTest {
         assertThat(anime).isEqualTo(createValidAnime());
     }
 
+    @Test
+    @DisplayName("save return anime saved by the group commit when group commit is enabled")
+    void save_ReturnsAnimeSavedByGroupCommit_WhenGroupCommitIsEnabled() {
+        BDDMockito.when(animeGroupCommitService.isEnabled()).thenReturn(true);
+        BDDMockito.when(animeGroupCommitService.save(any(AnimePostRequestBody.class))).thenReturn(createAnime());
+
+        ResponseEntity<Anime> entity = animeController.save(createAnimePostRequestBody());
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(entity.getBody()).isEqualTo(createAnime());
+        BDDMockito.verify(animeService, BDDMockito.never()).save(any(AnimePostRequestBody.class));
+    }
+
+    @Test
+    @DisplayName("saveAll return list of anime with status created when successful")
+    void saveAll_ReturnsListOfAnimeWithStatusCreated_WhenSuccessful() {
+        ResponseEntity<List<Anime>> entity = animeController.saveAll(AnimeBatchPostRequestBody.builder()
+                .animes(asList(createAnimePostRequestBody(), createAnimePostRequestBody()))
+                .build());
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(entity.getBody()).containsExactly(createValidAnime(), createAnime());
+    }
+
     @Test
     @DisplayName("replace return anime when successful")
     void replace_ReturnsAnime_WhenSuccessful() {
-        Anime anime = animeController.replace(createAnimePutRequestBody()).getBody();
+        Anime anime = animeController.replace(createAnimePutRequestBody(), null).getBody();
 
         assertThat(anime).isEqualTo(createValidAnime());
     }
 
+    @Test
+    @DisplayName("replace sends the If-Match version to the service when If-Match is present")
+    void replace_SendsIfMatchVersionToService_WhenIfMatchIsPresent() {
+        AnimePutRequestBody animePutRequestBody = createAnimePutRequestBody();
+
+        animeController.replace(animePutRequestBody, "\"1-3\"");
+
+        assertThat(animePutRequestBody.getVersion()).isEqualTo(3L);
+        BDDMockito.verify(animeService).replace(animePutRequestBody);
+    }
+
+    @Test
+    @DisplayName("replace throws PreconditionFailedException when If-Match is the ETag of another anime")
+    void replace_ThrowsPreconditionFailedException_WhenIfMatchIsFromAnotherAnime() {
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> animeController.replace(createAnimePutRequestBody(), "\"2-0\""));
+
+        BDDMockito.verify(animeService, Mockito.never()).replace(any(AnimePutRequestBody.class));
+    }
+
+    @Test
+    @DisplayName("patch returns 204 without ETag when no version is sent")
+    void patch_ReturnsNoContentWithoutETag_WhenNoVersionIsSent() {
+        ResponseEntity<Void> entity = animeController.patch(1L, new AnimePatchRequestBody("Overlord", null), null);
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(entity.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    @DisplayName("patch returns 204 with the next ETag when If-Match is present")
+    void patch_ReturnsNoContentWithNextETag_WhenIfMatchIsPresent() {
+        AnimePatchRequestBody animePatchRequestBody = new AnimePatchRequestBody("Overlord", null);
+
+        ResponseEntity<Void> entity = animeController.patch(1L, animePatchRequestBody, "\"1-3\"");
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(entity.getHeaders().getETag()).isEqualTo("\"1-4\"");
+        BDDMockito.verify(animeService).patch(1L, new AnimePatchRequestBody("Overlord", 3L));
+    }
+
+    @Test
+    @DisplayName("deleteAll returns the number of animes deleted when successful")
+    void deleteAll_ReturnsNumberOfAnimesDeleted_WhenSuccessful() {
+        ResponseEntity<BulkDeleteResponse> entity = animeController.deleteAll(AnimeBulkDeleteRequestBody.builder()
+                .ids(asList(1L, 2L))
+                .build());
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(entity.getBody()).isEqualTo(new BulkDeleteResponse(2));
+    }
+
     @Test
     @DisplayName("Delete return anime when successful")
     void delete_ReturnsAnime_WhenSuccessful() {
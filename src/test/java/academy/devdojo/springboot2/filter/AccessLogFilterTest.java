@@ -0,0 +1,110 @@
+package academy.devdojo.springboot2.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AccessLogFilterTest {
+    private AccessLog accessLog;
+
+    @BeforeEach
+    void setUp() {
+        accessLog = Mockito.mock(AccessLog.class);
+    }
+
+    @Test
+    @DisplayName("doFilter records method, route pattern, status and latency when successful")
+    void doFilter_RecordsEntry_WhenSuccessful() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLog, 1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/animes/{id}");
+            response.setStatus(404);
+        };
+
+        filter.doFilter(request, response, chain);
+
+        AccessLogEntry entry = recordedEntry();
+        assertThat(entry.getMethod()).isEqualTo("GET");
+        assertThat(entry.getRoute()).isEqualTo("/animes/{id}");
+        assertThat(entry.getStatus()).isEqualTo(404);
+        assertThat(entry.getLatencyNanos()).isPositive();
+    }
+
+    @Test
+    @DisplayName("doFilter records the request uri when no handler matched")
+    void doFilter_RecordsRequestUri_WhenNoHandlerMatched() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLog, 1.0);
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/unknown"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(recordedEntry().getRoute()).isEqualTo("/unknown");
+    }
+
+    @Test
+    @DisplayName("doFilter skips successful requests but keeps server errors when sample rate is zero")
+    void doFilter_KeepsOnlyServerErrors_WhenSampleRateIsZero() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLog, 0);
+        MockHttpServletResponse serverError = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes"), serverError,
+                (servletRequest, servletResponse) -> serverError.setStatus(503));
+
+        assertThat(recordedEntry().getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    @DisplayName("doFilter records status 500 when the chain throws an exception")
+    void doFilter_RecordsServerError_WhenChainThrowsException() {
+        AccessLogFilter filter = new AccessLogFilter(accessLog, 1.0);
+
+        assertThatExceptionOfType(ServletException.class)
+                .isThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/animes"), new MockHttpServletResponse(),
+                        (servletRequest, servletResponse) -> {
+                            throw new ServletException("boom");
+                        }));
+
+        assertThat(recordedEntry().getStatus()).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("doFilter records asynchronous requests when the response completes")
+    void doFilter_RecordsEntryOnCompletion_WhenRequestIsAsynchronous() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(accessLog, 1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/all/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        AsyncContext[] asyncContext = new AsyncContext[1];
+
+        filter.doFilter(request, response,
+                (servletRequest, servletResponse) -> asyncContext[0] = servletRequest.startAsync(servletRequest, servletResponse));
+
+        BDDMockito.verifyNoInteractions(accessLog);
+        response.setStatus(201);
+        asyncContext[0].complete();
+        assertThat(recordedEntry().getStatus()).isEqualTo(201);
+    }
+
+    private AccessLogEntry recordedEntry() {
+        ArgumentCaptor<AccessLogEntry> entry = ArgumentCaptor.forClass(AccessLogEntry.class);
+        BDDMockito.verify(accessLog).record(entry.capture());
+        return entry.getValue();
+    }
+}
@@ -0,0 +1,100 @@
+package academy.devdojo.springboot2.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    @DisplayName("capacity is rounded up to a power of two")
+    void capacity_IsRoundedUpToPowerOfTwo_WhenCapacityIsNotPowerOfTwo() {
+        assertThat(new AccessLogRingBuffer(8192).capacity()).isEqualTo(8192);
+        assertThat(new AccessLogRingBuffer(1000).capacity()).isEqualTo(1024);
+        assertThat(new AccessLogRingBuffer(2).capacity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("poll returns entries in the order they were offered and null when empty")
+    void poll_ReturnsEntriesInOrder_WhenSuccessful() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        for (int round = 0; round < 3; round++) {
+            assertThat(buffer.offer(entry(1))).isTrue();
+            assertThat(buffer.offer(entry(2))).isTrue();
+
+            assertThat(buffer.poll().getLatencyNanos()).isEqualTo(1);
+            assertThat(buffer.poll().getLatencyNanos()).isEqualTo(2);
+            assertThat(buffer.poll()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("offer returns false when the buffer is full")
+    void offer_ReturnsFalse_WhenBufferIsFull() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+
+        assertThat(buffer.offer(entry(1))).isTrue();
+        assertThat(buffer.offer(entry(2))).isTrue();
+        assertThat(buffer.offer(entry(3))).isFalse();
+        assertThat(buffer.poll().getLatencyNanos()).isEqualTo(1);
+        assertThat(buffer.offer(entry(3))).isTrue();
+    }
+
+    @Test
+    @DisplayName("offer from many threads loses no entry while a single consumer polls")
+    void offer_LosesNoEntry_WhenManyProducersOfferConcurrently() throws InterruptedException {
+        int producers = 8;
+        int entriesPerProducer = 10_000;
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger offered = new AtomicInteger();
+        for (int producer = 0; producer < producers; producer++) {
+            long base = (long) producer * entriesPerProducer;
+            executor.execute(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < entriesPerProducer; i++) {
+                    while (!buffer.offer(entry(base + i))) {
+                        Thread.yield();
+                    }
+                    offered.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+
+        Set<Long> polled = new HashSet<>();
+        while (polled.size() < producers * entriesPerProducer) {
+            AccessLogEntry entry = buffer.poll();
+            if (entry != null) {
+                assertThat(polled.add(entry.getLatencyNanos())).isTrue();
+            }
+        }
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(offered.get()).isEqualTo(producers * entriesPerProducer);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    private static AccessLogEntry entry(long latencyNanos) {
+        return new AccessLogEntry(0, "GET", "/animes", 200, latencyNanos);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
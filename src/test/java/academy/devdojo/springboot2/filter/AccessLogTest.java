@@ -0,0 +1,37 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.util.DateUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogTest {
+
+    @Test
+    @DisplayName("record counts dropped entries when the buffer is full")
+    void record_CountsDroppedEntries_WhenBufferIsFull() {
+        AccessLog accessLog = new AccessLog(16, Duration.ofSeconds(1), new DateUtil());
+        for (int i = 0; i < 20; i++) {
+            accessLog.record(new AccessLogEntry(0, "GET", "/animes", 200, 1));
+        }
+
+        assertThat(accessLog.getDropped()).isEqualTo(4);
+        assertThat(accessLog.flush()).isEqualTo(16);
+        assertThat(accessLog.flush()).isZero();
+    }
+
+    @Test
+    @DisplayName("stop flushes the entries recorded before stopping")
+    void stop_FlushesRecordedEntries_WhenStarted() throws InterruptedException {
+        AccessLog accessLog = new AccessLog(16, Duration.ofMinutes(1), new DateUtil());
+        accessLog.start();
+        accessLog.record(new AccessLogEntry(0, "GET", "/animes", 200, 1));
+
+        accessLog.stop();
+
+        assertThat(accessLog.flush()).isZero();
+    }
+}
@@ -0,0 +1,132 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.filter.AdaptiveConcurrencyLimit.Priority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("tryAcquire rejects requests above the share of the limit of their priority")
+    void tryAcquire_RejectsRequests_WhenShareOfPriorityIsInFlight() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 0.8, 0.5);
+
+        assertThat(acquire(limit, Priority.LOW, 10)).isEqualTo(5);
+        assertThat(acquire(limit, Priority.NORMAL, 10)).isEqualTo(3);
+        assertThat(acquire(limit, Priority.HIGH, 10)).isEqualTo(2);
+        assertThat(limit.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("release frees the slot of the request")
+    void release_FreesSlot_WhenRequestCompletes() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, 1, 1);
+        limit.tryAcquire(Priority.HIGH);
+
+        limit.release(FAST);
+
+        assertThat(limit.getInFlight()).isZero();
+        assertThat(limit.tryAcquire(Priority.HIGH)).isTrue();
+    }
+
+    @Test
+    @DisplayName("release without latency frees the slot and leaves the limit alone")
+    void release_FreesSlotWithoutSampling_WhenLatencyIsNotGiven() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 200, 1, 1);
+        saturate(limit, FAST, 50);
+        int limitBefore = limit.getLimit();
+
+        for (int i = 0; i < 250; i++) {
+            limit.tryAcquire(Priority.LOW);
+            limit.release();
+        }
+
+        assertThat(limit.getInFlight()).isZero();
+        assertThat(limit.getLimit()).isEqualTo(limitBefore);
+    }
+
+    @Test
+    @DisplayName("release shrinks the limit when the latency rises")
+    void release_ShrinksLimit_WhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 10, 200, 1, 1);
+        saturate(limit, FAST, 50);
+        int limitBefore = limit.getLimit();
+
+        saturate(limit, SLOW, 5);
+
+        assertThat(limit.getLimit()).isLessThan(limitBefore * 3 / 4);
+    }
+
+    @Test
+    @DisplayName("release keeps the limit at the minimum when the latency rises")
+    void release_KeepsMinimumLimit_WhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 10, 200, 1, 1);
+        saturate(limit, FAST, 1);
+
+        saturate(limit, SLOW * 10, 5);
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("release grows the limit up to the maximum while the latency is steady and the limit is used")
+    void release_GrowsLimit_WhenLatencyIsSteadyAndLimitIsUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 200, 1, 1);
+
+        saturate(limit, FAST, 10);
+        assertThat(limit.getLimit()).isGreaterThan(20);
+
+        saturate(limit, FAST, 500);
+        assertThat(limit.getLimit()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("release keeps the limit when far fewer requests than the limit are in flight")
+    void release_KeepsLimit_WhenLimitIsNotUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 10, 200, 1, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.tryAcquire(Priority.HIGH);
+            limit.release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("AdaptiveConcurrencyLimit throws IllegalArgumentException when the initial limit is outside min and max")
+    void adaptiveConcurrencyLimit_ThrowsIllegalArgumentException_WhenInitialLimitIsOutsideBounds() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveConcurrencyLimit(5, 10, 200, 1, 1));
+    }
+
+    private int acquire(AdaptiveConcurrencyLimit limit, Priority priority, int requests) {
+        int acquired = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limit.tryAcquire(priority)) {
+                acquired++;
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * Fills the limit and releases every request with the latency, repeated for the given number of windows of 50 samples.
+     */
+    private void saturate(AdaptiveConcurrencyLimit limit, long latencyNanos, int windows) {
+        int remaining = windows * 50;
+        while (remaining > 0) {
+            int acquired = acquire(limit, Priority.HIGH, Math.min(remaining, limit.getLimit()));
+            for (int i = 0; i < acquired; i++) {
+                limit.release(latencyNanos);
+            }
+            remaining -= acquired;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package academy.devdojo.springboot2.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BearerTokenSecurityContextRepositoryTest {
+    private final BearerTokenSecurityContextRepository repository = new BearerTokenSecurityContextRepository();
+    private final SecurityContext context = new SecurityContextImpl(new UsernamePasswordAuthenticationToken("douglas",
+            null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+    @Test
+    @DisplayName("saveContext creates no session when the request carries a bearer token")
+    void saveContext_CreatesNoSession_WhenRequestHasBearerToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        save(request);
+
+        assertThat(request.getSession(false)).isNull();
+        assertThat(repository.containsContext(request)).isFalse();
+    }
+
+    @Test
+    @DisplayName("loadContext ignores the session when the request carries a bearer token")
+    void loadContext_IgnoresSession_WhenRequestHasBearerToken() {
+        MockHttpServletRequest basic = new MockHttpServletRequest("GET", "/animes");
+        save(basic);
+        MockHttpServletRequest bearer = new MockHttpServletRequest("GET", "/animes");
+        bearer.setSession(basic.getSession(false));
+        bearer.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        SecurityContext loaded = repository.loadContext(new HttpRequestResponseHolder(bearer, new MockHttpServletResponse()));
+
+        assertThat(loaded.getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("saveContext keeps the context in the session when the request has no bearer token")
+    void saveContext_KeepsContextInSession_WhenRequestHasNoBearerToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+
+        save(request);
+
+        assertThat(repository.containsContext(request)).isTrue();
+        assertThat(repository.loadContext(new HttpRequestResponseHolder(request, new MockHttpServletResponse()))
+                .getAuthentication()).isEqualTo(context.getAuthentication());
+    }
+
+    /**
+     * The way SecurityContextPersistenceFilter calls the repository, saveContext needs the response of loadContext.
+     */
+    private void save(MockHttpServletRequest request) {
+        HttpRequestResponseHolder holder = new HttpRequestResponseHolder(request, new MockHttpServletResponse());
+        repository.loadContext(holder);
+        repository.saveContext(context, holder.getRequest(), holder.getResponse());
+    }
+}
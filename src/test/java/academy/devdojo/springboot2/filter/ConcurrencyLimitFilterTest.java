@@ -0,0 +1,175 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.filter.AdaptiveConcurrencyLimit.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ConcurrencyLimitFilterTest {
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimit = new AdaptiveConcurrencyLimit(2, 1, 10, 1, 0.5);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(meterRegistry, concurrencyLimit, Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("doFilter runs the request and releases its slot when below the limit")
+    void doFilter_RunsRequestAndReleasesSlot_WhenBelowLimit() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(concurrencyLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("doFilter returns 503 with Retry-After and counts the rejection when the limit is reached")
+    void doFilter_ReturnsServiceUnavailableWithRetryAfter_WhenLimitIsReached() throws Exception {
+        concurrencyLimit.tryAcquire(Priority.HIGH);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes/all"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(meterRegistry.get("devdojo.concurrency.rejected").tags("priority", "LOW").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter lets id lookups use the whole limit when low priority requests are rejected")
+    void doFilter_RunsIdLookup_WhenLowPriorityShareIsInFlight() throws Exception {
+        concurrencyLimit.tryAcquire(Priority.HIGH);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("doFilter ignores requests outside /animes")
+    void doFilter_IgnoresRequest_WhenPathIsNotAnimes() throws Exception {
+        concurrencyLimit.tryAcquire(Priority.HIGH);
+        concurrencyLimit.tryAcquire(Priority.HIGH);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/token"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("doFilter releases the slot when the chain throws an exception")
+    void doFilter_ReleasesSlot_WhenChainThrowsException() {
+        FilterChain chain = (request, response) -> {
+            throw new ServletException("failed");
+        };
+
+        assertThatExceptionOfType(ServletException.class)
+                .isThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/animes"), new MockHttpServletResponse(), chain));
+
+        assertThat(concurrencyLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("doFilter releases the slot of an async request when it completes")
+    void doFilter_ReleasesSlot_WhenAsyncRequestCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/reactive/1");
+        request.setAsyncSupported(true);
+        FilterChain chain = (servletRequest, servletResponse) -> servletRequest.startAsync();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(concurrencyLimit.getInFlight()).isEqualTo(1);
+
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(null);
+        }
+        assertThat(concurrencyLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("doFilter keeps the limit when one long stream completes in a window of fast id lookups")
+    void doFilter_KeepsLimit_WhenLongStreamCompletesInWindowOfFastRequests() throws Exception {
+        AdaptiveConcurrencyLimit windowLimit = new AdaptiveConcurrencyLimit(20, 10, 200, 1, 1);
+        ConcurrencyLimitFilter windowFilter = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), windowLimit, Duration.ofSeconds(1));
+        FilterChain fastChain = (servletRequest, servletResponse) -> sleep(1);
+        for (int i = 0; i < 50; i++) {
+            windowFilter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), new MockHttpServletResponse(), fastChain);
+        }
+
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/animes/all/stream");
+        stream.setAsyncSupported(true);
+        windowFilter.doFilter(stream, new MockHttpServletResponse(), (servletRequest, servletResponse) -> servletRequest.startAsync());
+        for (int i = 0; i < 49; i++) {
+            windowFilter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), new MockHttpServletResponse(), fastChain);
+        }
+        sleep(500);
+        for (AsyncListener listener : ((MockAsyncContext) stream.getAsyncContext()).getListeners()) {
+            listener.onComplete(null);
+        }
+        windowFilter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), new MockHttpServletResponse(), fastChain);
+
+        assertThat(windowLimit.getInFlight()).isZero();
+        assertThat(windowLimit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("priority classifies id lookups as high and listings and bulk operations as low")
+    void priority_ClassifiesRequests_WhenCalled() {
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/1"))).isEqualTo(Priority.HIGH);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/by-id/1"))).isEqualTo(Priority.HIGH);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/reactive/1"))).isEqualTo(Priority.HIGH);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("PATCH", "/animes/1"))).isEqualTo(Priority.NORMAL);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/find"))).isEqualTo(Priority.NORMAL);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("DELETE", "/animes/admin/1"))).isEqualTo(Priority.NORMAL);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/all"))).isEqualTo(Priority.LOW);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/all/stream"))).isEqualTo(Priority.LOW);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("GET", "/animes/reactive/all"))).isEqualTo(Priority.LOW);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("POST", "/animes/batch"))).isEqualTo(Priority.LOW);
+        assertThat(ConcurrencyLimitFilter.priority(new MockHttpServletRequest("DELETE", "/animes/admin"))).isEqualTo(Priority.LOW);
+    }
+
+    @Test
+    @DisplayName("ConcurrencyLimitFilter exposes the limit and the in-flight requests as gauges")
+    void concurrencyLimitFilter_ExposesLimitAndInFlightGauges_WhenCreated() {
+        concurrencyLimit.tryAcquire(Priority.HIGH);
+
+        assertThat(meterRegistry.get("devdojo.concurrency.limit").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("devdojo.concurrency.in.flight").gauge().value()).isEqualTo(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package academy.devdojo.springboot2.filter;
+
+import academy.devdojo.springboot2.repository.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("doFilter sets the pin cookie when the request is a write")
+    void doFilter_SetsPinCookie_WhenRequestIsWrite() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/animes"), response, (req, res) -> {
+        });
+
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(ReadYourWritesFilter.PIN_COOKIE + "=1")
+                .contains("Max-Age=5");
+    }
+
+    @Test
+    @DisplayName("doFilter pins the request to the primary when it carries the pin cookie")
+    void doFilter_PinsToPrimary_WhenRequestHasPinCookie() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.PIN_COOKIE, "1"));
+        List<Boolean> pinned = new ArrayList<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), recordingPin(pinned));
+
+        assertThat(pinned).containsExactly(true);
+        assertThat(ReplicaRoutingDataSource.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    @DisplayName("doFilter pins the request to the primary when it is a write")
+    void doFilter_PinsToPrimary_WhenRequestIsWrite() throws Exception {
+        List<Boolean> pinned = new ArrayList<>();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/animes/admin/1"), new MockHttpServletResponse(),
+                recordingPin(pinned));
+
+        assertThat(pinned).containsExactly(true);
+    }
+
+    @Test
+    @DisplayName("doFilter leaves reads on the replicas when the request has no pin cookie")
+    void doFilter_LeavesReadsOnReplicas_WhenRequestHasNoPinCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Boolean> pinned = new ArrayList<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), response, recordingPin(pinned));
+
+        assertThat(pinned).containsExactly(false);
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    @DisplayName("doFilter neither sets the cookie nor pins when pin-after-write is zero")
+    void doFilter_DoesNothing_WhenPinAfterWriteIsZero() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Boolean> pinned = new ArrayList<>();
+
+        new ReadYourWritesFilter(Duration.ZERO).doFilter(new MockHttpServletRequest("POST", "/animes"), response,
+                recordingPin(pinned));
+
+        assertThat(pinned).containsExactly(false);
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    private FilterChain recordingPin(List<Boolean> pinned) {
+        return (request, response) -> pinned.add(ReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+}
@@ -0,0 +1,73 @@
+package academy.devdojo.springboot2.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class StatementBudgetFilterTest {
+    private SqlStatementCounter sqlStatementCounter;
+    private MeterRegistry meterRegistry;
+    private StatementBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        sqlStatementCounter = new SqlStatementCounter();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new StatementBudgetFilter(sqlStatementCounter, meterRegistry, 2);
+    }
+
+    @Test
+    @DisplayName("doFilter records the statements of the request by route when within budget")
+    void doFilter_RecordsStatementsByRoute_WhenWithinBudget() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), new MockHttpServletResponse(), runningStatements(2));
+
+        assertThat(meterRegistry.get("devdojo.sql.statements").tags("method", "GET", "uri", "/animes/{id}")
+                .summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.find("devdojo.sql.statement.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("doFilter counts the request over budget when it runs more statements than the budget")
+    void doFilter_CountsRequestOverBudget_WhenStatementsExceedBudget() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/animes/1"), new MockHttpServletResponse(), runningStatements(3));
+
+        assertThat(meterRegistry.get("devdojo.sql.statement.budget.exceeded").tags("uri", "/animes/{id}")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("doFilter stops counting when the chain throws an exception")
+    void doFilter_StopsCounting_WhenChainThrowsException() {
+        FilterChain chain = (request, response) -> {
+            sqlStatementCounter.inspect("select 1");
+            throw new ServletException("failed");
+        };
+
+        assertThatExceptionOfType(ServletException.class)
+                .isThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/animes"), new MockHttpServletResponse(), chain));
+
+        sqlStatementCounter.inspect("select 1");
+        assertThat(sqlStatementCounter.stop()).isZero();
+        assertThat(meterRegistry.get("devdojo.sql.statements").summary().totalAmount()).isEqualTo(1);
+    }
+
+    private FilterChain runningStatements(int statements) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/animes/{id}");
+            for (int i = 0; i < statements; i++) {
+                sqlStatementCounter.inspect("select * from anime where id = ?");
+            }
+        };
+    }
+}
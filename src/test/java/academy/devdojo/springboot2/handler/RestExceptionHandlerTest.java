@@ -0,0 +1,38 @@
+package academy.devdojo.springboot2.handler;
+
+import academy.devdojo.springboot2.exception.ExceptionDetails;
+import academy.devdojo.springboot2.exception.GatewayTimeoutException;
+import academy.devdojo.springboot2.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestExceptionHandlerTest {
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler(Duration.ofSeconds(5));
+
+    @Test
+    @DisplayName("handlerServiceUnavailableException returns 503 with the configured Retry-After")
+    void handlerServiceUnavailableException_ReturnsConfiguredRetryAfter_WhenCalled() {
+        ResponseEntity<ExceptionDetails> response = restExceptionHandler.handlerServiceUnavailableException(
+                new ServiceUnavailableException("queue full"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    @Test
+    @DisplayName("handlerGatewayTimeoutException returns 504 without Retry-After")
+    void handlerGatewayTimeoutException_ReturnsGatewayTimeoutWithoutRetryAfter_WhenCalled() {
+        ResponseEntity<ExceptionDetails> response = restExceptionHandler.handlerGatewayTimeoutException(
+                new GatewayTimeoutException("outcome unknown"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER)).isFalse();
+    }
+}
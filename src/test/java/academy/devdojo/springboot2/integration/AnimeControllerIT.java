@@ -1,11 +1,18 @@
 package academy.devdojo.springboot2.integration;
 
+import academy.devdojo.springboot2.client.SpringClient;
+import academy.devdojo.springboot2.config.MessageConverterConfig;
 import academy.devdojo.springboot2.domain.Anime;
 import academy.devdojo.springboot2.domain.DevDojoUser;
 import academy.devdojo.springboot2.repository.AnimeRepository;
 import academy.devdojo.springboot2.repository.DevDojoUserRepository;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
 import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.wrapper.BulkDeleteResponse;
 import academy.devdojo.springboot2.wrapper.PageableResponse;
+import academy.devdojo.springboot2.wrapper.TokenResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
@@ -17,16 +24,27 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
 import static academy.devdojo.springboot2.util.AnimeCreator.createValidAnime;
@@ -51,6 +69,8 @@ public class AnimeControllerIT {
     private AnimeRepository animeRepository;
     @Autowired
     private DevDojoUserRepository devDojoUserRepository;
+    @LocalServerPort
+    private int port;
     private static DevDojoUser USER = DevDojoUser.builder()
             .name("devdojo")
             .password("{bcrypt}$2a$10$DbyN0UNd6kYdi6kWKEENwulquefdNE1SH0lOY1S4A5l4Rs4Bx8NBO")
@@ -96,6 +116,39 @@ public class AnimeControllerIT {
 
         assertThat(exchange.toList()).isNotEmpty().hasSize(1);
         assertThat(exchange.toList().get(0).getName()).isEqualTo(expectedName);
+        assertThat(exchange.isTotalExact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("ListAll return page flagged as approximate when totals is ESTIMATED")
+    void listAll_ReturnsApproximatePage_WhenTotalsIsEstimated() {
+        animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(USER);
+
+        PageableResponse<Anime> exchange = testRestTemplateRoleUser.exchange("/animes?totals=ESTIMATED", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                }).getBody();
+
+        assertThat(exchange.toList()).hasSize(1);
+        assertThat(exchange.isTotalKnown()).isTrue();
+        assertThat(exchange.isTotalExact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("ListAll return slice without total when totals is NONE")
+    void listAll_ReturnsSliceWithoutTotal_WhenTotalsIsNone() {
+        animeRepository.save(createAnimeToBeSaved());
+        animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(USER);
+
+        PageableResponse<Anime> exchange = testRestTemplateRoleUser.exchange("/animes?totals=NONE&size=1", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                }).getBody();
+
+        assertThat(exchange.toList()).hasSize(1);
+        assertThat(exchange.isTotalKnown()).isFalse();
+        assertThat(exchange.hasNext()).isTrue();
+        assertThat(exchange.getTotalElements()).isEqualTo(2);
     }
 
     @Test
@@ -211,4 +264,133 @@ public class AnimeControllerIT {
         assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
     }
 
+    @Test
+    @DisplayName("findById returns 304 without body when If-None-Match is the current ETag")
+    void findById_ReturnsNotModified_WhenIfNoneMatchIsCurrentETag() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(USER);
+        ResponseEntity<Anime> firstResponse = testRestTemplateRoleUser.getForEntity("/animes/{id}", Anime.class,
+                savedAnime.getId());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(firstResponse.getHeaders().getETag());
+
+        ResponseEntity<String> secondResponse = testRestTemplateRoleUser.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class, savedAnime.getId());
+
+        assertThat(firstResponse.getHeaders().getETag()).isEqualTo("\"" + savedAnime.getId() + "-0\"");
+        assertThat(secondResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(secondResponse.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("replace returns 412 when If-Match is not the current ETag")
+    void replace_ReturnsPreconditionFailed_WhenIfMatchIsStale() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(USER);
+        savedAnime.setName("new name");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"" + savedAnime.getId() + "-0\"");
+
+        ResponseEntity<Anime> replaced = testRestTemplateRoleUser.exchange("/animes", HttpMethod.PUT,
+                new HttpEntity<>(savedAnime, headers), Anime.class);
+        ResponseEntity<Anime> stale = testRestTemplateRoleUser.exchange("/animes", HttpMethod.PUT,
+                new HttpEntity<>(savedAnime, headers), Anime.class);
+
+        assertThat(replaced.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replaced.getHeaders().getETag()).isEqualTo("\"" + savedAnime.getId() + "-1\"");
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @DisplayName("patch renames anime and returns 204 when successful")
+    void patch_RenamesAnime_WhenSuccessful() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(USER);
+
+        ResponseEntity<Void> animeResponseEntity = testRestTemplateRoleUser.exchange("/animes/{id}", HttpMethod.PATCH,
+                new HttpEntity<>(new AnimePatchRequestBody("new name", null)), Void.class, savedAnime.getId());
+
+        assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(animeRepository.findById(savedAnime.getId())).get()
+                .extracting("name", "version")
+                .containsExactly("new name", 1L);
+    }
+
+    @Test
+    @DisplayName("deleteAll deletes animes by id and returns the number deleted when user is Admin")
+    void deleteAll_ReturnsNumberDeleted_WhenUserIsAdmin() {
+        Anime firstAnime = animeRepository.save(createAnimeToBeSaved());
+        Anime secondAnime = animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(ADMIN);
+        AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody = AnimeBulkDeleteRequestBody.builder()
+                .ids(List.of(firstAnime.getId(), secondAnime.getId(), -1L))
+                .build();
+
+        ResponseEntity<BulkDeleteResponse> animeResponseEntity = testRestTemplateRoleAdmin.exchange("/animes/admin",
+                HttpMethod.DELETE, new HttpEntity<>(animeBulkDeleteRequestBody), BulkDeleteResponse.class);
+
+        assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(animeResponseEntity.getBody()).isEqualTo(new BulkDeleteResponse(2));
+        assertThat(animeRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("ListAll return page of anime encoded as Smile when Accept is Smile")
+    void listAll_ReturnsSmilePage_WhenAcceptIsSmile() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+        devDojoUserRepository.save(USER);
+
+        ResponseEntity<PageableResponse<Anime>> exchange = testRestTemplateRoleUser.exchange("/animes", HttpMethod.GET,
+                new HttpEntity<>(SpringClient.createSmileHeader()), new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                });
+
+        assertThat(exchange.getHeaders().getContentType()).isEqualTo(MessageConverterConfig.APPLICATION_SMILE);
+        assertThat(exchange.getBody().toList()).hasSize(1);
+        assertThat(exchange.getBody().toList().get(0))
+                .extracting("id", "name")
+                .containsExactly(savedAnime.getId(), savedAnime.getName());
+    }
+
+    @Test
+    @DisplayName("ListAll return gzipped json when client accepts gzip and the response is large")
+    void listAll_ReturnsGzippedJson_WhenClientAcceptsGzip() throws Exception {
+        animeRepository.saveAll(IntStream.range(0, 100).mapToObj(i -> createAnimeToBeSaved()).collect(Collectors.toList()));
+        devDojoUserRepository.save(USER);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/animes/all"))
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + HttpHeaders.encodeBasicAuth("devdojo", "academy", null))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            byte[] decompressed = json.readAllBytes();
+            assertThat(decompressed.length).isGreaterThan(response.body().length);
+            assertThat(new ObjectMapper().readTree(decompressed)).hasSize(100);
+        }
+    }
+
+    @Test
+    @DisplayName("Bearer token requests are authenticated without a session and can't renew the token")
+    void bearerToken_AuthenticatesWithoutSession_AndIsNotExchangedForNewToken() throws Exception {
+        devDojoUserRepository.save(USER);
+        ResponseEntity<TokenResponse> token = testRestTemplateRoleUser.postForEntity("/auth/token", null, TokenResponse.class);
+        assertThat(token.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String authorization = "Bearer " + token.getBody().getToken();
+        HttpClient httpClient = HttpClient.newHttpClient();
+
+        HttpResponse<String> animes = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/animes"))
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> renewed = httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/token"))
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(animes.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(animes.headers().allValues(HttpHeaders.SET_COOKIE)).noneMatch(cookie -> cookie.startsWith("JSESSIONID"));
+        assertThat(renewed.statusCode()).isEqualTo(HttpStatus.FORBIDDEN.value());
+        assertThat(renewed.body()).doesNotContain("token");
+    }
 }
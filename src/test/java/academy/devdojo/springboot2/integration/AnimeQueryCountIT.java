@@ -0,0 +1,229 @@
+package academy.devdojo.springboot2.integration;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.domain.DevDojoUser;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.repository.DevDojoUserRepository;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.util.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static academy.devdojo.springboot2.util.AnimePostRequestBodyCreator.createAnimePostRequestBody;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets of the anime endpoints, everything Hibernate runs for the request including the
+ * authentication, recorded by {@link SqlStatementRecorder}. An N+1 query or a select before a merge breaks them.
+ * Open in view is off, so a service method can't lean on the session of the request to save a statement. The user
+ * cache is warmed before every test, so the budgets are the ones of an already authenticated user. They are exact except for the inserts,
+ * which only call the id sequence when the pooled-lo block of 50 ids is used up.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.open-in-view=false")
+@AutoConfigureTestDatabase
+@Import(SqlStatementRecorder.Config.class)
+public class AnimeQueryCountIT {
+    private static final String PASSWORD = "{bcrypt}$2a$10$DbyN0UNd6kYdi6kWKEENwulquefdNE1SH0lOY1S4A5l4Rs4Bx8NBO";
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private DevDojoUserRepository devDojoUserRepository;
+
+    private TestRestTemplate user;
+    private TestRestTemplate admin;
+
+    @BeforeEach
+    void setUp() {
+        animeRepository.deleteAll();
+        saveUserIfAbsent("devdojo", "ROLE_USER");
+        saveUserIfAbsent("douglas", "ROLE_ADMIN, ROLE_USER");
+        user = testRestTemplate.withBasicAuth("devdojo", "academy");
+        admin = testRestTemplate.withBasicAuth("douglas", "academy");
+        user.getForEntity("/animes/cursor?size=1", String.class);
+        admin.getForEntity("/animes/cursor?size=1", String.class);
+        sqlStatementRecorder.clear();
+    }
+
+    @Test
+    @DisplayName("GET /animes runs 2 statements, the page and the count")
+    void list_RunsTwoStatements_WhenTotalIsCounted() {
+        animeRepository.saveAll(List.of(createAnimeToBeSaved(), createAnimeToBeSaved()));
+
+        ResponseEntity<String> response = user.getForEntity("/animes?size=1", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("GET /animes/cursor runs 1 statement")
+    void listByCursor_RunsOneStatement_WhenSuccessful() {
+        animeRepository.saveAll(List.of(createAnimeToBeSaved(), createAnimeToBeSaved()));
+
+        ResponseEntity<String> response = user.getForEntity("/animes/cursor?size=1", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("GET /animes/all runs 1 statement whatever the number of animes")
+    void listAll_RunsOneStatement_WhenSuccessful() {
+        animeRepository.saveAll(List.of(createAnimeToBeSaved(), createAnimeToBeSaved()));
+
+        ResponseEntity<String> response = user.getForEntity("/animes/all", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("GET /animes/{id} runs 1 statement")
+    void findById_RunsOneStatement_WhenSuccessful() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+
+        ResponseEntity<String> response = user.getForEntity("/animes/{id}", String.class, savedAnime.getId());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("GET /animes/find runs 1 statement")
+    void findByName_RunsOneStatement_WhenSuccessful() {
+        animeRepository.save(createAnimeToBeSaved());
+
+        ResponseEntity<String> response = user.getForEntity("/animes/find?name=Hajime no Ippo", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("GET /animes/search runs 2 statements, the page and the count")
+    void search_RunsTwoStatements_WhenTotalIsCounted() {
+        animeRepository.saveAll(List.of(createAnimeToBeSaved(), createAnimeToBeSaved()));
+
+        ResponseEntity<String> response = user.getForEntity("/animes/search?name=hajime&size=1", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("POST /animes runs at most 2 statements, the id sequence and the insert")
+    void save_RunsAtMostTwoStatements_WhenSuccessful() {
+        ResponseEntity<String> response = user.postForEntity("/animes", createAnimePostRequestBody(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(statementsOfTheRequest()).hasSizeBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("POST /animes/batch runs at most 2 statements for 20 animes, the id sequence and a batched insert")
+    void saveAll_RunsAtMostTwoStatements_WhenInsertsAreBatched() {
+        AnimeBatchPostRequestBody animeBatchPostRequestBody = new AnimeBatchPostRequestBody(IntStream.range(0, 20)
+                .mapToObj(i -> createAnimePostRequestBody())
+                .collect(Collectors.toList()));
+
+        ResponseEntity<String> response = user.postForEntity("/animes/batch", animeBatchPostRequestBody, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(statementsOfTheRequest()).hasSizeBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("PUT /animes runs 2 statements, the select and the update of the managed anime")
+    void replace_RunsTwoStatements_WhenSuccessful() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+                .id(savedAnime.getId())
+                .name("Overlord")
+                .build();
+
+        ResponseEntity<String> response = user.exchange("/animes", HttpMethod.PUT,
+                new HttpEntity<>(animePutRequestBody), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(statementsOfTheRequest()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("PATCH /animes/{id} runs 1 statement")
+    void patch_RunsOneStatement_WhenSuccessful() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+
+        ResponseEntity<Void> response = user.exchange("/animes/{id}", HttpMethod.PATCH,
+                new HttpEntity<>(new AnimePatchRequestBody("Overlord", null)), Void.class, savedAnime.getId());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("DELETE /animes/admin/{id} runs 1 statement")
+    void delete_RunsOneStatement_WhenSuccessful() {
+        Anime savedAnime = animeRepository.save(createAnimeToBeSaved());
+
+        ResponseEntity<Void> response = admin.exchange("/animes/admin/{id}", HttpMethod.DELETE, null, Void.class,
+                savedAnime.getId());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("DELETE /animes/admin runs 1 statement for a list of ids")
+    void deleteAll_RunsOneStatement_WhenIdsAreSent() {
+        List<Long> ids = animeRepository.saveAll(List.of(createAnimeToBeSaved(), createAnimeToBeSaved())).stream()
+                .map(Anime::getId)
+                .collect(Collectors.toList());
+
+        ResponseEntity<String> response = admin.exchange("/animes/admin", HttpMethod.DELETE,
+                new HttpEntity<>(new AnimeBulkDeleteRequestBody(ids, null)), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statementsOfTheRequest()).hasSize(1);
+    }
+
+    private List<String> statementsOfTheRequest() {
+        List<List<String>> requests = sqlStatementRecorder.recordedBlocks();
+        assertThat(requests).hasSize(1);
+        return requests.get(0);
+    }
+
+    private void saveUserIfAbsent(String userName, String authorities) {
+        if (devDojoUserRepository.findByUserName(userName) == null) {
+            devDojoUserRepository.save(DevDojoUser.builder()
+                    .name(userName)
+                    .password(PASSWORD)
+                    .userName(userName)
+                    .authorities(authorities)
+                    .build());
+        }
+    }
+}
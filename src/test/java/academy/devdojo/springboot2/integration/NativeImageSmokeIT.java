@@ -0,0 +1,99 @@
+package academy.devdojo.springboot2.integration;
+
+import academy.devdojo.springboot2.Springboot2EssentialsApplication;
+import academy.devdojo.springboot2.util.ApplicationProcess;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Smoke test of the native executable built by mvn -Pnative package, against H2: the requests exercise the metadata
+ * in META-INF/native-image (entities, JSON bodies, the exception handler). Then starts the JVM build with the same
+ * profiles and logs the time to the first request and the resident set size of both after the smoke requests.
+ * Skipped when target/springboot2-essentials doesn't exist.
+ */
+@Log4j2
+class NativeImageSmokeIT {
+    private static final Path EXECUTABLE = Paths.get("target", "springboot2-essentials");
+    private static final String PROFILES = "--spring.profiles.active=native,h2";
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Test
+    @DisplayName("native executable serves the anime endpoints against H2, startup and memory logged next to the JVM build")
+    void nativeExecutable_ServesAnimeEndpoints_WhenStartedWithH2() throws Exception {
+        assumeTrue(Files.isExecutable(EXECUTABLE), "no native executable, run mvn -Pnative package first");
+
+        Measurement nativeImage = measure(EXECUTABLE.toString(), PROFILES);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Measurement jvm = measure(java, "-cp", System.getProperty("java.class.path"),
+                Springboot2EssentialsApplication.class.getName(), PROFILES);
+
+        log.info("native: time to first request {}ms, RSS {}MB", nativeImage.getTimeToFirstRequestMillis(), nativeImage.getRssMegabytes());
+        log.info("JVM: time to first request {}ms, RSS {}MB", jvm.getTimeToFirstRequestMillis(), jvm.getRssMegabytes());
+    }
+
+    private Measurement measure(String... command) throws Exception {
+        try (ApplicationProcess application = ApplicationProcess.start(null, null, command)) {
+            long timeToFirstRequest = application.waitForFirstRequest("/animes?size=1");
+            smokeRequests(application);
+            return new Measurement(timeToFirstRequest, rssMegabytes(application.pid()));
+        }
+    }
+
+    private void smokeRequests(ApplicationProcess application) throws Exception {
+        HttpResponse<String> saved = application.send(application.post("/animes", "{\"name\":\"Native Smoke\"}"));
+        assertThat(saved.statusCode()).isEqualTo(201);
+        Matcher id = ID.matcher(saved.body());
+        assertThat(id.find()).isTrue();
+
+        HttpResponse<String> found = application.send(application.get("/animes/" + id.group(1)));
+        assertThat(found.statusCode()).isEqualTo(200);
+        assertThat(found.body()).contains("\"name\":\"Native Smoke\"").doesNotContain("normalizedName");
+
+        HttpResponse<String> page = application.send(application.get("/animes?size=5"));
+        assertThat(page.statusCode()).isEqualTo(200);
+        assertThat(page.body()).contains("\"content\":[", "\"totalElements\":");
+
+        HttpResponse<String> notFound = application.send(application.get("/animes/-1"));
+        assertThat(notFound.statusCode()).isEqualTo(400);
+        assertThat(notFound.body()).contains("\"title\":\"Bad Request, Check the documentation\"");
+
+        HttpResponse<String> invalid = application.send(application.post("/animes", "{\"name\":\"\"}"));
+        assertThat(invalid.statusCode()).isEqualTo(400);
+        assertThat(invalid.body()).contains("\"fields\":\"name\"");
+    }
+
+    /**
+     * @return VmRSS of the process, -1 where /proc isn't available
+     */
+    private static long rssMegabytes(long pid) throws IOException {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.replaceAll("\\D", ""))
+                .mapToLong(kilobytes -> Long.parseLong(kilobytes) / 1024)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    @Value
+    private static class Measurement {
+        long timeToFirstRequestMillis;
+        long rssMegabytes;
+    }
+}
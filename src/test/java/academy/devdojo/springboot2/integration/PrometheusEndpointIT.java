@@ -0,0 +1,77 @@
+package academy.devdojo.springboot2.integration;
+
+import academy.devdojo.springboot2.domain.DevDojoUser;
+import academy.devdojo.springboot2.repository.DevDojoUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The meters scraped by prometheus.yml: HTTP latency histograms, repository timers, statements per request,
+ * Hibernate statistics, the Hikari connection acquire time and the concurrency limit. The h2 profile keeps the Hikari pool, the embedded
+ * test database doesn't have one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@AutoConfigureMetrics
+public class PrometheusEndpointIT {
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+    @Autowired
+    private DevDojoUserRepository devDojoUserRepository;
+
+    @Test
+    @DisplayName("prometheus endpoint exposes the database meters after a request")
+    void prometheus_ExposesDatabaseMeters_AfterRequest() {
+        String metrics = scrapeAfterFindByName();
+
+        assertThat(metrics)
+                .contains("spring_data_repository_invocations_seconds_count{application=\"springboot2-essentials\",exception=\"None\",method=\"findByName\",repository=\"AnimeRepository\",state=\"SUCCESS\",}")
+                .contains("devdojo_sql_statements_count{application=\"springboot2-essentials\",method=\"GET\",uri=\"/animes/find\",}")
+                .contains("hibernate_statements_total")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_flushes_total")
+                .contains("hikaricp_connections_acquire_seconds_count");
+    }
+
+    @Test
+    @DisplayName("prometheus endpoint exposes latency histogram buckets with the SLO boundaries by route")
+    void prometheus_ExposesLatencyHistogramWithSloBuckets_AfterRequest() {
+        String metrics = scrapeAfterFindByName();
+
+        assertThat(metrics)
+                .containsPattern("http_server_requests_seconds_bucket\\{application=\"springboot2-essentials\",.*uri=\"/animes/find\",le=\"0\\.2\",}")
+                .containsPattern("http_server_requests_seconds_bucket\\{application=\"springboot2-essentials\",.*uri=\"/animes/find\",le=\"\\+Inf\",}")
+                .doesNotContain("http_server_requests_seconds{");
+    }
+
+    @Test
+    @DisplayName("prometheus endpoint exposes the concurrency limit state")
+    void prometheus_ExposesConcurrencyLimit_AfterRequest() {
+        String metrics = scrapeAfterFindByName();
+
+        assertThat(metrics)
+                .contains("devdojo_concurrency_limit{application=\"springboot2-essentials\",}")
+                .contains("devdojo_concurrency_in_flight{application=\"springboot2-essentials\",}")
+                .contains("devdojo_concurrency_rejected_total{application=\"springboot2-essentials\",priority=\"LOW\",} 0.0");
+    }
+
+    private String scrapeAfterFindByName() {
+        if (devDojoUserRepository.findByUserName("devdojo") == null) {
+            devDojoUserRepository.save(DevDojoUser.builder()
+                    .name("devdojo")
+                    .password("{bcrypt}$2a$10$DbyN0UNd6kYdi6kWKEENwulquefdNE1SH0lOY1S4A5l4Rs4Bx8NBO")
+                    .userName("devdojo")
+                    .authorities("ROLE_USER")
+                    .build());
+        }
+        testRestTemplate.withBasicAuth("devdojo", "academy").getForEntity("/animes/find?name=Overlord", String.class);
+        return testRestTemplate.getForObject("/actuator/prometheus", String.class);
+    }
+}
@@ -0,0 +1,41 @@
+package academy.devdojo.springboot2.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(AnimeNormalizedNameBackfill.class)
+@DisplayName("Test for Anime Normalized Name Backfill")
+class AnimeNormalizedNameBackfillTest {
+    private static final String INSERT = "INSERT INTO anime (id, name, version) VALUES (?, ?, 0)";
+
+    @Autowired
+    private AnimeNormalizedNameBackfill animeNormalizedNameBackfill;
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("afterSingletonsInstantiated fills the normalized name of every anime saved without it, over several chunks")
+    void afterSingletonsInstantiated_FillsNormalizedName_WhenAnimesWereSavedWithoutIt() {
+        int animes = AnimeNormalizedNameBackfill.CHUNK_SIZE + 1;
+        for (long id = 1; id <= animes; id++) {
+            jdbcTemplate.update(INSERT, 100_000 + id, " Hajime no Ippo " + id);
+        }
+
+        animeNormalizedNameBackfill.afterSingletonsInstantiated();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM anime WHERE normalized_name IS NULL", Long.class))
+                .isZero();
+        assertThat(animeRepository.findByNormalizedNameStartingWith("hajime no ippo 1", PageRequest.of(0, 1))
+                .getTotalElements()).isGreaterThan(0);
+    }
+}
@@ -0,0 +1,111 @@
+package academy.devdojo.springboot2.repository;
+
+import academy.devdojo.springboot2.domain.Anime;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.List;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every repository call runs in its own transaction and persistence context, so the reads can only be
+ * answered without SQL by the second-level and query caches.
+ */
+@DataJpaTest
+@ActiveProfiles("l2cache")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second-level cache tests for Anime Repository")
+class AnimeRepositorySecondLevelCacheTest {
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private Anime savedAnime;
+
+    @BeforeEach
+    void setUp() {
+        savedAnime = animeRepository.save(createAnimeToBeSaved());
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("findById runs no SQL when the anime is in the second-level cache")
+    void findById_RunsNoStatement_WhenAnimeIsCached() {
+        animeRepository.findById(savedAnime.getId());
+        statistics.clear();
+
+        Anime anime = animeRepository.findById(savedAnime.getId()).orElseThrow();
+
+        assertThat(anime.getName()).isEqualTo(savedAnime.getName());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Anime.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findByName runs no SQL when the result is in the query cache")
+    void findByName_RunsNoStatement_WhenResultIsCached() {
+        animeRepository.findByName(savedAnime.getName());
+        statistics.clear();
+
+        List<Anime> animes = animeRepository.findByName(savedAnime.getName());
+
+        assertThat(animes).extracting(Anime::getId).containsExactly(savedAnime.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findByName reads the database again after an anime is saved")
+    void findByName_RunsStatement_WhenAnimeIsSavedAfterCaching() {
+        animeRepository.findByName(savedAnime.getName());
+        Anime secondAnime = animeRepository.save(createAnimeToBeSaved());
+        statistics.clear();
+
+        List<Anime> animes = animeRepository.findByName(savedAnime.getName());
+
+        assertThat(animes).extracting(Anime::getId).containsExactlyInAnyOrder(savedAnime.getId(), secondAnime.getId());
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("region hits and misses are exported as Micrometer meters")
+    void hibernateMetrics_ExportRegionHitsAndMisses() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new HibernateMetrics(sessionFactory, "entityManagerFactory", Collections.emptyList()).bindTo(meterRegistry);
+
+        animeRepository.findById(savedAnime.getId());
+        animeRepository.findById(savedAnime.getId());
+
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", Anime.CACHE_REGION, "result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", Anime.CACHE_REGION, "result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -1,12 +1,18 @@
 package academy.devdojo.springboot2.repository;
 
 import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.util.SqlStatementRecorder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,11 +21,16 @@ import static org.assertj.core.api.Assertions.*;
 
 
 @DataJpaTest
+@Import(SqlStatementRecorder.Config.class)
 @DisplayName("Test for Anime Repository")
 class AnimeRepositoryTest {
 
     @Autowired
     private AnimeRepository animeRepository;
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     @DisplayName("save create anime when successful")
@@ -83,6 +94,50 @@ class AnimeRepositoryTest {
         assertThat(animes).isEmpty();
     }
 
+    @Test
+    @DisplayName("Keyset queries return the animes after the cursor when successful")
+    void keyset_ReturnAnimesAfterCursor_WhenSuccessful() {
+        List<Anime> saved = this.animeRepository.saveAll(Arrays.asList(
+                Anime.builder().name("Berserk").build(),
+                Anime.builder().name("Akira").build(),
+                Anime.builder().name("Berserk").build()));
+
+        List<Anime> afterFirstId = this.animeRepository.findByIdGreaterThanOrderByIdAsc(saved.get(0).getId(), PageRequest.of(0, 5));
+        List<Anime> afterFirstBerserk = this.animeRepository.findAfterNameAndId("Berserk", saved.get(0).getId(), PageRequest.of(0, 5));
+
+        assertThat(afterFirstId).containsExactly(saved.get(1), saved.get(2));
+        assertThat(afterFirstBerserk).containsExactly(saved.get(2));
+    }
+
+    @Test
+    @DisplayName("Find By Normalized Name return page of anime ignoring case when successful")
+    void findByNormalizedName_ReturnPageOfAnimeIgnoringCase_WhenSuccessful() {
+        Anime animeSaved = this.animeRepository.save(createAnimeToBeSaved());
+        this.animeRepository.save(Anime.builder().name("Naruto").build());
+
+        Page<Anime> prefix = this.animeRepository.findByNormalizedNameStartingWith("hajime", PageRequest.of(0, 5));
+        Page<Anime> contains = this.animeRepository.findByNormalizedNameContaining("ippo", PageRequest.of(0, 5));
+
+        assertThat(prefix.toList()).containsExactly(animeSaved);
+        assertThat(contains.toList()).containsExactly(animeSaved);
+        assertThat(animeSaved.getNormalizedName()).isEqualTo("hajime no ippo");
+    }
+
+    @Test
+    @DisplayName("Prefix search query generated by Spring Data uses the normalized name index")
+    void findByNormalizedNameStartingWith_UsesNormalizedNameIndex() {
+        this.sqlStatementRecorder.start();
+        this.animeRepository.findByNormalizedNameStartingWith("hajime", PageRequest.of(0, 5));
+        List<String> statements = this.sqlStatementRecorder.stopAndGetStatements();
+
+        assertThat(statements).isNotEmpty();
+        String query = statements.get(0);
+        assertThat(query).containsIgnoringCase("normalized_name like ?");
+        String plan = this.jdbcTemplate.queryForObject("EXPLAIN " + query, String.class, "hajime%", "\\", 5);
+
+        assertThat(plan).containsIgnoringCase("idx_anime_normalized_name");
+    }
+
     @Test
     @DisplayName("Save throw ConstraintViolationException when name is empty")
     void save_ThrowConstraintViolationException_WhenNoAnimeIsNotFound() {
@@ -92,7 +147,7 @@ class AnimeRepositoryTest {
 //                .isInstanceOf(ConstraintViolationException.class);
 
         assertThatExceptionOfType(ConstraintViolationException.class)
-                .isThrownBy(() -> this.animeRepository.save(anime))
+                .isThrownBy(() -> this.animeRepository.saveAndFlush(anime))
                 .withMessageContaining("The anime name can't be empty");
     }
 
@@ -0,0 +1,64 @@
+package academy.devdojo.springboot2.repository;
+
+import academy.devdojo.springboot2.domain.Anime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ALTER SEQUENCE commits on H2, so the tests run outside the test transaction and clean up after themselves.
+ */
+@DataJpaTest
+@Import(AnimeSequenceInitializer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Test for Anime Sequence Initializer")
+class AnimeSequenceInitializerTest {
+    private static final String INSERT = "INSERT INTO anime (id, name, normalized_name, version) VALUES (?, 'Ippo', 'ippo', 0)";
+    private static final String NEXT_VALUE = "SELECT CURRENT_VALUE + INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES " +
+            "WHERE SEQUENCE_NAME = 'ANIME_SEQ'";
+
+    @Autowired
+    private AnimeSequenceInitializer animeSequenceInitializer;
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("afterSingletonsInstantiated moves the sequence past the existing ids when they were inserted without it")
+    void afterSingletonsInstantiated_MovesSequencePastExistingIds_WhenIdsWereNotGenerated() {
+        jdbcTemplate.update(INSERT, 1000L);
+
+        animeSequenceInitializer.afterSingletonsInstantiated();
+        Anime savedAnime = animeRepository.saveAndFlush(createAnimeToBeSaved());
+
+        assertThat(savedAnime.getId()).isGreaterThan(1000L);
+    }
+
+    @Test
+    @DisplayName("afterSingletonsInstantiated never moves the sequence back")
+    void afterSingletonsInstantiated_KeepsSequence_WhenItIsAlreadyPastExistingIds() {
+        jdbcTemplate.update(INSERT, 5000L);
+        animeSequenceInitializer.afterSingletonsInstantiated();
+        animeRepository.deleteAllInBatch();
+        jdbcTemplate.update(INSERT, 10L);
+
+        animeSequenceInitializer.afterSingletonsInstantiated();
+
+        assertThat(jdbcTemplate.queryForObject(NEXT_VALUE, Long.class)).isGreaterThan(5000L);
+    }
+}
@@ -0,0 +1,34 @@
+package academy.devdojo.springboot2.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.OptionalLong;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(AnimeTableStatisticsRepository.class)
+@DisplayName("Test for Anime Table Statistics Repository")
+class AnimeTableStatisticsRepositoryTest {
+
+    @Autowired
+    private AnimeTableStatisticsRepository animeTableStatisticsRepository;
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Test
+    @DisplayName("estimatedRowCount reads the H2 table statistics when successful")
+    void estimatedRowCount_ReturnsEstimate_WhenDatabaseIsH2() {
+        animeRepository.saveAndFlush(createAnimeToBeSaved());
+
+        OptionalLong estimate = animeTableStatisticsRepository.estimatedRowCount();
+
+        assertThat(estimate).isPresent();
+        assertThat(estimate.getAsLong()).isGreaterThanOrEqualTo(0L);
+    }
+}
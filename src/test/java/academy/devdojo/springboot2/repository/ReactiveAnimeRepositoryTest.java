@@ -0,0 +1,111 @@
+package academy.devdojo.springboot2.repository;
+
+import academy.devdojo.springboot2.domain.Anime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the h2 profile so R2DBC and JPA share the same in-memory database and sequence.
+ */
+@SpringBootTest(properties = "devdojo.reactive.enabled=true")
+@ActiveProfiles("h2")
+@DisplayName("Tests for Reactive Anime Repository")
+class ReactiveAnimeRepositoryTest {
+    @Autowired
+    private ReactiveAnimeRepository reactiveAnimeRepository;
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @AfterEach
+    void tearDown() {
+        animeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Save persists anime with normalized name when successful")
+    void save_PersistAnime_WhenSuccessful() {
+        Anime animeSaved = reactiveAnimeRepository.save(createAnimeToBeSaved()).block();
+
+        assertThat(animeSaved).isNotNull();
+        assertThat(animeSaved.getId()).isNotNull();
+        Anime animeFound = animeRepository.findById(animeSaved.getId()).orElseThrow();
+        assertThat(animeFound.getName()).isEqualTo(createAnimeToBeSaved().getName());
+        assertThat(animeFound.getNormalizedName()).isEqualTo("hajime no ippo");
+    }
+
+    @Test
+    @DisplayName("Save allocates ids that do not collide with the ids allocated by JPA")
+    void save_AllocatesIdsNotUsedByJpa_WhenMixedWithJpaInserts() {
+        Anime savedByJpa = animeRepository.save(createAnimeToBeSaved());
+        Anime savedReactively = reactiveAnimeRepository.save(createAnimeToBeSaved()).block();
+        Anime savedByJpaAgain = animeRepository.save(createAnimeToBeSaved());
+
+        assertThat(savedReactively).isNotNull();
+        assertThat(animeRepository.count()).isEqualTo(3);
+        assertThat(savedReactively.getId()).isNotIn(savedByJpa.getId(), savedByJpaAgain.getId());
+    }
+
+    @Test
+    @DisplayName("findById, findByName and findAll return saved anime when successful")
+    void find_ReturnsSavedAnime_WhenSuccessful() {
+        Anime animeSaved = animeRepository.save(createAnimeToBeSaved());
+
+        assertThat(reactiveAnimeRepository.findById(animeSaved.getId()).block()).isEqualTo(animeSaved);
+        assertThat(reactiveAnimeRepository.findByName(animeSaved.getName()).collectList().block())
+                .containsExactly(animeSaved);
+        assertThat(reactiveAnimeRepository.findAll(PageRequest.of(0, 10)).collectList().block())
+                .containsExactly(animeSaved);
+        assertThat(reactiveAnimeRepository.count().block()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("findById returns empty when anime is not found")
+    void findById_ReturnsEmpty_WhenAnimeIsNotFound() {
+        assertThat(reactiveAnimeRepository.findById(-1L).blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("update and deleteById return the number of affected rows")
+    void updateAndDelete_ReturnAffectedRows_WhenSuccessful() {
+        Anime animeSaved = animeRepository.save(createAnimeToBeSaved());
+        animeSaved.setName("Overlord");
+
+        assertThat(reactiveAnimeRepository.update(animeSaved).block()).isEqualTo(1);
+        assertThat(animeRepository.findById(animeSaved.getId()).orElseThrow().getNormalizedName())
+                .isEqualTo("overlord");
+        assertThat(reactiveAnimeRepository.deleteById(animeSaved.getId()).block()).isEqualTo(1);
+        assertThat(reactiveAnimeRepository.deleteById(animeSaved.getId()).block()).isZero();
+    }
+
+    @Test
+    @DisplayName("update returns 0 when the anime no longer has the version")
+    void update_ReturnsZero_WhenVersionIsStale() {
+        Anime animeSaved = animeRepository.save(createAnimeToBeSaved());
+        Anime stale = Anime.builder().id(animeSaved.getId()).name("Overlord").version(animeSaved.getVersion() + 1).build();
+        Anime current = Anime.builder().id(animeSaved.getId()).name("Overlord").version(animeSaved.getVersion()).build();
+
+        assertThat(reactiveAnimeRepository.update(stale).block()).isZero();
+        assertThat(reactiveAnimeRepository.update(current).block()).isEqualTo(1);
+        assertThat(animeRepository.findById(animeSaved.getId()).orElseThrow().getVersion())
+                .isEqualTo(animeSaved.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Save hands out the ids of a sequence block before calling the sequence again")
+    void save_UsesWholeIdBlock_WhenSavingSeveralAnimes() {
+        Long first = reactiveAnimeRepository.save(createAnimeToBeSaved()).block().getId();
+        Long second = reactiveAnimeRepository.save(createAnimeToBeSaved()).block().getId();
+        Long third = reactiveAnimeRepository.save(createAnimeToBeSaved()).block().getId();
+
+        assertThat(second - first).isEqualTo(1);
+        assertThat(third - second).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package academy.devdojo.springboot2.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.setCurrentTransactionReadOnly;
+
+class ReplicaRoutingDataSourceTest {
+    private final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(Mockito.mock(DataSource.class),
+            Arrays.asList(Mockito.mock(DataSource.class), Mockito.mock(DataSource.class)));
+
+    @AfterEach
+    void tearDown() {
+        setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey returns the replicas round robin when the transaction is read-only")
+    void determineCurrentLookupKey_ReturnsReplicasRoundRobin_WhenTransactionIsReadOnly() {
+        setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey returns the primary when the transaction is not read-only")
+    void determineCurrentLookupKey_ReturnsPrimary_WhenTransactionIsNotReadOnly() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey returns the primary when the thread is pinned to it")
+    void determineCurrentLookupKey_ReturnsPrimary_WhenPinnedToPrimary() {
+        setCurrentTransactionReadOnly(true);
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("determineCurrentLookupKey returns the primary when there are no replicas")
+    void determineCurrentLookupKey_ReturnsPrimary_WhenThereAreNoReplicas() {
+        ReplicaRoutingDataSource withoutReplicas = new ReplicaRoutingDataSource(Mockito.mock(DataSource.class),
+                Collections.emptyList());
+        setCurrentTransactionReadOnly(true);
+
+        assertThat(withoutReplicas.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+}
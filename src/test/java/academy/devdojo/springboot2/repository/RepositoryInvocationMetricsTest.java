@@ -0,0 +1,67 @@
+package academy.devdojo.springboot2.repository;
+
+import academy.devdojo.springboot2.config.SqlMetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@DataJpaTest
+@Import(SqlMetricsConfig.class)
+@DisplayName("Metrics tests for the repositories")
+class RepositoryInvocationMetricsTest {
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private DevDojoUserRepository devDojoUserRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    @DisplayName("repository methods are timed by repository and method when successful")
+    void repositoryMethods_AreTimedByRepositoryAndMethod_WhenSuccessful() {
+        animeRepository.save(createAnimeToBeSaved());
+        animeRepository.findByName("Hajime no Ippo");
+        animeRepository.findByName("Overlord");
+        devDojoUserRepository.findByUserName("devdojo");
+
+        assertThat(timerCount("AnimeRepository", "save", "SUCCESS")).isEqualTo(1);
+        assertThat(timerCount("AnimeRepository", "findByName", "SUCCESS")).isEqualTo(2);
+        assertThat(timerCount("DevDojoUserRepository", "findByUserName", "SUCCESS")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("repository methods are timed with the exception when they fail")
+    void repositoryMethods_AreTimedWithException_WhenTheyFail() {
+        assertThatExceptionOfType(EmptyResultDataAccessException.class)
+                .isThrownBy(() -> animeRepository.deleteById(-1L));
+
+        assertThat(meterRegistry.get(RepositoryInvocationMetrics.METRIC_NAME)
+                .tags("method", "deleteById", "state", "ERROR", "exception", "EmptyResultDataAccessException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private long timerCount(String repository, String method, String state) {
+        return meterRegistry.get(RepositoryInvocationMetrics.METRIC_NAME)
+                .tags("repository", repository, "method", method, "state", state, "exception", "None")
+                .timer().count();
+    }
+}
@@ -0,0 +1,230 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.exception.GatewayTimeoutException;
+import academy.devdojo.springboot2.exception.ServiceUnavailableException;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AnimeGroupCommitServiceTest {
+    private final AnimeService animeService = Mockito.mock(AnimeService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private AnimeGroupCommitService groupCommitService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (groupCommitService != null) {
+            groupCommitService.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("save commits concurrent animes in one group and returns each caller its own anime")
+    void save_CommitsConcurrentAnimesInOneGroup_WhenMaxBatchSizeIsReached() throws Exception {
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        start(3, Duration.ofSeconds(10), 10);
+
+        Future<Anime> first = callers.submit(() -> groupCommitService.save(request("first")));
+        Future<Anime> second = callers.submit(() -> groupCommitService.save(request("second")));
+        Future<Anime> third = callers.submit(() -> groupCommitService.save(request("third")));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getName()).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS).getName()).isEqualTo("second");
+        assertThat(third.get(5, TimeUnit.SECONDS).getName()).isEqualTo("third");
+        Mockito.verify(animeService).saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class));
+        DistributionSummary batchSize = meterRegistry.get("devdojo.animes.group.commit.size").summary();
+        assertThat(batchSize.count()).isEqualTo(1);
+        assertThat(batchSize.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("save commits a partial group when max-delay passes")
+    void save_CommitsPartialGroup_WhenMaxDelayPasses() {
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        start(50, Duration.ofMillis(5), 10);
+
+        assertThat(groupCommitService.save(request("alone")).getName()).isEqualTo("alone");
+    }
+
+    @Test
+    @DisplayName("save returns each caller its own result when the group commit fails")
+    void save_ReturnsEachCallerItsOwnResult_WhenGroupCommitFails() throws Exception {
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenThrow(new BadRequestException("Duplicated name"));
+        BDDMockito.when(animeService.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    AnimePostRequestBody body = invocation.getArgument(0);
+                    if (body.getName().equals("invalid")) {
+                        throw new BadRequestException("Duplicated name");
+                    }
+                    return Anime.builder().id(1L).name(body.getName()).build();
+                });
+        start(2, Duration.ofSeconds(10), 10);
+
+        Future<Anime> valid = callers.submit(() -> groupCommitService.save(request("valid")));
+        Future<Anime> invalid = callers.submit(() -> groupCommitService.save(request("invalid")));
+
+        assertThat(valid.get(5, TimeUnit.SECONDS).getName()).isEqualTo("valid");
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> invalid.get(5, TimeUnit.SECONDS))
+                .withCauseInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("save throws ServiceUnavailableException when the queue is full")
+    void save_ThrowsServiceUnavailableException_WhenQueueIsFull() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    committing.countDown();
+                    release.join();
+                    return saved(invocation.getArgument(0));
+                });
+        start(1, Duration.ZERO, 1);
+
+        Future<Anime> committed = callers.submit(() -> groupCommitService.save(request("committed")));
+        assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Anime> queued = callers.submit(() -> groupCommitService.save(request("queued")));
+        while (meterRegistry.get("devdojo.animes.group.commit.queue").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+
+        assertThatExceptionOfType(ServiceUnavailableException.class)
+                .isThrownBy(() -> groupCommitService.save(request("rejected")));
+        assertThat(meterRegistry.get("devdojo.animes.group.commit.rejected").counter().count()).isEqualTo(1);
+
+        release.complete(null);
+        assertThat(committed.get(5, TimeUnit.SECONDS).getName()).isEqualTo("committed");
+        assertThat(queued.get(5, TimeUnit.SECONDS).getName()).isEqualTo("queued");
+    }
+
+    @Test
+    @DisplayName("save throws ServiceUnavailableException for a queued anime and GatewayTimeoutException for one being committed when save-timeout passes")
+    void save_ThrowsServiceUnavailableOrGatewayTimeoutException_WhenSaveTimesOut() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    committing.countDown();
+                    release.join();
+                    return saved(invocation.getArgument(0));
+                });
+        start(1, Duration.ZERO, 10, Duration.ofMillis(200));
+
+        Future<Anime> committed = callers.submit(() -> groupCommitService.save(request("committed")));
+        assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatExceptionOfType(ServiceUnavailableException.class)
+                .isThrownBy(() -> groupCommitService.save(request("waiting")));
+        assertThat(meterRegistry.get("devdojo.animes.group.commit.queue").gauge().value()).isZero();
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> committed.get(5, TimeUnit.SECONDS))
+                .withCauseInstanceOf(GatewayTimeoutException.class);
+        assertThat(meterRegistry.get("devdojo.animes.group.commit.timed.out").counter().count()).isEqualTo(2);
+        release.complete(null);
+    }
+
+    @Test
+    @DisplayName("save fails only the group that threw an Error, the committer goes on with the next group")
+    void save_KeepsCommitting_WhenGroupCommitThrowsError() {
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenThrow(new AssertionError("broken"))
+                .thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        start(1, Duration.ZERO, 10);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> groupCommitService.save(request("broken")))
+                .withCauseInstanceOf(AssertionError.class);
+        assertThat(groupCommitService.save(request("next")).getName()).isEqualTo("next");
+    }
+
+    @Test
+    @DisplayName("stop fails the saves still queued when the committer doesn't finish in time")
+    void stop_FailsQueuedSaves_WhenCommitterIsStuck() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        BDDMockito.when(animeService.saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class)))
+                .thenAnswer(invocation -> {
+                    committing.countDown();
+                    release.join();
+                    return saved(invocation.getArgument(0));
+                });
+        start(1, Duration.ZERO, 10, Duration.ofMinutes(1));
+        callers.submit(() -> groupCommitService.save(request("stuck")));
+        assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Anime> queued = callers.submit(() -> groupCommitService.save(request("queued")));
+        while (meterRegistry.get("devdojo.animes.group.commit.queue").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+
+        groupCommitService.stop();
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+                .withCauseInstanceOf(ServiceUnavailableException.class);
+        release.complete(null);
+    }
+
+    @Test
+    @DisplayName("save saves the anime in its own transaction when group commit is disabled")
+    void save_SavesAnimeAlone_WhenGroupCommitIsDisabled() {
+        BDDMockito.when(animeService.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
+                .thenReturn(Anime.builder().id(1L).name("alone").build());
+        groupCommitService = new AnimeGroupCommitService(animeService, meterRegistry, false, 50, Duration.ofMillis(5), 10,
+                Duration.ofSeconds(5));
+        groupCommitService.start();
+
+        assertThat(groupCommitService.save(request("alone")).getName()).isEqualTo("alone");
+        Mockito.verify(animeService, Mockito.never()).saveAll(ArgumentMatchers.any(AnimeBatchPostRequestBody.class));
+        assertThat(meterRegistry.find("devdojo.animes.group.commit.size").summary()).isNull();
+    }
+
+    private void start(int maxBatchSize, Duration maxDelay, int queueCapacity) {
+        start(maxBatchSize, maxDelay, queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private void start(int maxBatchSize, Duration maxDelay, int queueCapacity, Duration saveTimeout) {
+        groupCommitService = new AnimeGroupCommitService(animeService, meterRegistry, true, maxBatchSize, maxDelay,
+                queueCapacity, saveTimeout);
+        groupCommitService.start();
+    }
+
+    private static AnimePostRequestBody request(String name) {
+        return AnimePostRequestBody.builder().name(name).build();
+    }
+
+    private static List<Anime> saved(AnimeBatchPostRequestBody batch) {
+        return batch.getAnimes().stream()
+                .map(body -> Anime.builder().id(1L).name(body.getName()).build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,181 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.config.CachingConfig;
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.mapper.AnimeMapper;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createValidAnime;
+import static academy.devdojo.springboot2.util.AnimePostRequestBodyCreator.createAnimePostRequestBody;
+import static academy.devdojo.springboot2.util.AnimePutRequestBodyCreator.createAnimePutRequestBody;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+
+@SpringBootTest(classes = {AnimeService.class, CachingConfig.class},
+        properties = {"spring.cache.type=caffeine", "spring.cache.cache-names=animes"})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@Import(AnimeServiceCacheTest.TransactionConfig.class)
+class AnimeServiceCacheTest {
+    @Autowired
+    private AnimeService animeService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private AnimeRepository animeRepository;
+    @MockBean
+    private AnimeMapper animeMapper;
+    @MockBean
+    private EntityManager entityManager;
+    @MockBean
+    private AnimeTotalsService animeTotalsService;
+    @Autowired
+    private RecordingTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(AnimeService.ANIME_CACHE).clear();
+        cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).clear();
+        transactionManager.cachedAtCommit.clear();
+
+        BDDMockito.when(animeRepository.findById(anyLong()))
+                .thenReturn(Optional.of(createValidAnime()));
+
+        BDDMockito.when(animeRepository.save(any(Anime.class)))
+                .thenReturn(createValidAnime());
+
+        BDDMockito.when(animeRepository.bulkDeleteByIds(anyCollection()))
+                .thenReturn(1);
+
+        BDDMockito.when(animeMapper.toAnime(any(AnimePostRequestBody.class)))
+                .thenReturn(createValidAnime());
+
+        BDDMockito.when(animeMapper.toAnime(any(AnimePutRequestBody.class)))
+                .thenReturn(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException read the database once when anime is cached")
+    void findByIdOrThrowBadRequestException_ReadsDatabaseOnce_WhenAnimeIsCached() {
+        Anime first = animeService.findByIdOrThrowBadRequestException(1L);
+        Anime second = animeService.findByIdOrThrowBadRequestException(1L);
+
+        assertThat(second).isEqualTo(first);
+        BDDMockito.verify(animeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("replace and delete evict the cached anime")
+    void replaceAndDelete_EvictCachedAnime() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+        animeService.replace(createAnimePutRequestBody());
+        animeService.findByIdOrThrowBadRequestException(1L);
+        animeService.delete(1L);
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        // replace reads the anime itself, without going through the cache
+        BDDMockito.verify(animeRepository, times(4)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("save put the saved anime in the cache")
+    void save_PutsSavedAnimeInCache() {
+        animeService.save(createAnimePostRequestBody());
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        BDDMockito.verify(animeRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("save and delete evict the cached total of animes")
+    void saveAndDelete_EvictCachedTotal() {
+        Cache totals = cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE);
+        totals.put("count", 10L);
+        animeService.save(createAnimePostRequestBody());
+        assertThat(totals.get("count")).isNull();
+
+        totals.put("count", 10L);
+        animeService.delete(1L);
+        assertThat(totals.get("count")).isNull();
+    }
+
+    @Test
+    @DisplayName("replace and delete evict the cached anime after the transaction committed")
+    void replaceAndDelete_EvictCachedAnime_AfterCommit() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+        transactionManager.cachedAtCommit.clear();
+
+        animeService.delete(1L);
+
+        assertThat(transactionManager.cachedAtCommit).containsExactly(true);
+        assertThat(cacheManager.getCache(AnimeService.ANIME_CACHE).get(1L)).isNull();
+    }
+
+    /**
+     * Imported rather than a @TestConfiguration, which the applications started from the test classpath
+     * (StartupBenchmark, NativeImageSmokeIT) would pick up through component scanning.
+     */
+    @EnableTransactionManagement
+    static class TransactionConfig {
+        @Bean
+        public RecordingTransactionManager transactionManager(CacheManager cacheManager) {
+            return new RecordingTransactionManager(cacheManager);
+        }
+    }
+
+    /**
+     * Records at every commit whether anime 1 was still cached.
+     */
+    static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        private final CacheManager cacheManager;
+        private final List<Boolean> cachedAtCommit = new ArrayList<>();
+
+        RecordingTransactionManager(CacheManager cacheManager) {
+            this.cacheManager = cacheManager;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            cachedAtCommit.add(cacheManager.getCache(AnimeService.ANIME_CACHE).get(1L) != null);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
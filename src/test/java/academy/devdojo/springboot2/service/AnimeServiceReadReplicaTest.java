@@ -0,0 +1,102 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.config.ReadReplicaConfig;
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.mapper.AnimeMapper;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.repository.AnimeTableStatisticsRepository;
+import academy.devdojo.springboot2.repository.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand for the primary and its replica. Nothing replicates between them, so
+ * the database that answered a read is told by its content.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "devdojo.datasource.replicas.enabled=true",
+        "devdojo.datasource.replicas.urls=" + AnimeServiceReadReplicaTest.REPLICA_URL})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaConfig.class, AnimeService.class, AnimeMapper.class, AnimeTotalsService.class,
+        AnimeTableStatisticsRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Read replica tests for Anime Service")
+class AnimeServiceReadReplicaTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private AnimeService animeService;
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private JdbcTemplate primary;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        Integer tables = replica.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'ANIME'",
+                Integer.class);
+        if (tables == 0) {
+            primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        }
+        replica.update("INSERT INTO anime (id, name, normalized_name, version) VALUES (1000, 'Replica', 'replica', 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.unpin();
+        replica.update("DELETE FROM anime");
+        animeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("listAllNonPageable reads from the replica while writes go to the primary")
+    void listAllNonPageable_ReadsFromReplica_WhenReplicasAreEnabled() {
+        animeRepository.save(createAnimeToBeSaved());
+
+        List<Anime> animes = animeService.listAllNonPageable();
+
+        assertThat(names(animes)).containsExactly("Replica");
+        assertThat(primary.queryForList("SELECT name FROM anime", String.class)).containsExactly("Hajime no Ippo");
+    }
+
+    @Test
+    @DisplayName("findByName reads from the primary when the thread is pinned to it")
+    void findByName_ReadsFromPrimary_WhenPinnedToPrimary() {
+        animeRepository.save(createAnimeToBeSaved());
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertThat(names(animeService.findByName("Hajime no Ippo"))).containsExactly("Hajime no Ippo");
+        assertThat(animeService.findByName("Replica")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException reads from the replica when replicas are enabled")
+    void findByIdOrThrowBadRequestException_ReadsFromReplica_WhenReplicasAreEnabled() {
+        assertThat(animeService.findByIdOrThrowBadRequestException(1000L).getName()).isEqualTo("Replica");
+    }
+
+    private List<String> names(List<Anime> animes) {
+        return animes.stream().map(Anime::getName).collect(Collectors.toList());
+    }
+}
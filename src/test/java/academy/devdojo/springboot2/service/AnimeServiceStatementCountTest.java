@@ -0,0 +1,119 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.domain.PageTotals;
+import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.mapper.AnimeMapper;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.repository.AnimeTableStatisticsRepository;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnimeToBeSaved;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Counts the JDBC statements of the write paths with Hibernate statistics.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AnimeService.class, AnimeMapper.class, AnimeTotalsService.class, AnimeTableStatisticsRepository.class})
+@DisplayName("Statement count tests for Anime Service")
+class AnimeServiceStatementCountTest {
+    @Autowired
+    private AnimeService animeService;
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Anime savedAnime;
+
+    @BeforeEach
+    void setUp() {
+        savedAnime = animeRepository.saveAndFlush(createAnimeToBeSaved());
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("patch runs a single UPDATE statement when successful")
+    void patch_RunsSingleStatement_WhenSuccessful() {
+        animeService.patch(savedAnime.getId(), new AnimePatchRequestBody("Overlord", null));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Anime anime = animeRepository.findById(savedAnime.getId()).orElseThrow();
+        assertThat(anime.getName()).isEqualTo("Overlord");
+        assertThat(anime.getNormalizedName()).isEqualTo("overlord");
+        assertThat(anime.getVersion()).isEqualTo(savedAnime.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("patch with the current version runs a single UPDATE statement when successful")
+    void patch_RunsSingleStatement_WhenVersionIsCurrent() {
+        animeService.patch(savedAnime.getId(), new AnimePatchRequestBody("Overlord", savedAnime.getVersion()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("patch runs a single UPDATE statement when anime is not found")
+    void patch_RunsSingleStatement_WhenAnimeIsNotFound() {
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.patch(-1L, new AnimePatchRequestBody("Overlord", null)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("listAll without totals runs a single SELECT statement")
+    void listAll_RunsSingleStatement_WhenTotalsIsNone() {
+        Slice<Anime> animeSlice = animeService.listAll(PageRequest.of(0, 5), PageTotals.NONE);
+
+        assertThat(animeSlice.getContent()).contains(savedAnime);
+        assertThat(animeSlice).isNotInstanceOf(Page.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("delete runs a single DELETE statement when successful")
+    void delete_RunsSingleStatement_WhenSuccessful() {
+        animeService.delete(savedAnime.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(animeRepository.existsById(savedAnime.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("deleteAll runs one DELETE statement per chunk of 1000 ids when successful")
+    void deleteAll_RunsOneStatementPerChunk_WhenSuccessful() {
+        List<Long> ids = LongStream.rangeClosed(-2499, 0).boxed().collect(Collectors.toList());
+        ids.add(savedAnime.getId());
+
+        int deleted = animeService.deleteAll(AnimeBulkDeleteRequestBody.builder().ids(ids).build());
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
@@ -1,11 +1,20 @@
 package academy.devdojo.springboot2.service;
 
 import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.domain.AnimeSearchMode;
+import academy.devdojo.springboot2.domain.PageTotals;
 import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
 import academy.devdojo.springboot2.mapper.AnimeMapper;
 import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.requests.AnimeBatchPostRequestBody;
+import academy.devdojo.springboot2.requests.AnimeBulkDeleteRequestBody;
+import academy.devdojo.springboot2.requests.AnimePatchRequestBody;
 import academy.devdojo.springboot2.requests.AnimePostRequestBody;
 import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import academy.devdojo.springboot2.util.AnimeCursor;
+import academy.devdojo.springboot2.wrapper.ApproximatePage;
+import academy.devdojo.springboot2.wrapper.CursorPageResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,14 +22,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static academy.devdojo.springboot2.util.AnimeCreator.createAnime;
 import static academy.devdojo.springboot2.util.AnimeCreator.createValidAnime;
 import static academy.devdojo.springboot2.util.AnimePostRequestBodyCreator.createAnimePostRequestBody;
 import static academy.devdojo.springboot2.util.AnimePutRequestBodyCreator.createAnimePutRequestBody;
@@ -38,6 +55,10 @@ class AnimeServiceTest {
     private AnimeRepository animeRepository;
     @Mock
     private AnimeMapper animeMapper;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private AnimeTotalsService animeTotalsService;
 
     @BeforeEach
     void setUp() {
@@ -45,18 +66,51 @@ class AnimeServiceTest {
         BDDMockito.when(animeRepository.findAll(any(PageRequest.class)))
                 .thenReturn(animePage);
 
+        BDDMockito.when(animeRepository.findAllBy(any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(asList(createValidAnime()), PageRequest.of(0, 1), true));
+
+        BDDMockito.when(animeTotalsService.getDefaultTotals())
+                .thenReturn(PageTotals.EXACT);
+
+        BDDMockito.when(animeTotalsService.cachedCount())
+                .thenReturn(10L);
+
+        BDDMockito.when(animeTotalsService.estimatedCount())
+                .thenReturn(12L);
+
         BDDMockito.when(animeRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(createValidAnime()));
 
+        BDDMockito.when(animeRepository.findAllByOrderByIdAsc(any(PageRequest.class)))
+                .thenReturn(asList(createValidAnime(), createAnime()));
+
+        BDDMockito.when(animeRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(PageRequest.class)))
+                .thenReturn(asList(createValidAnime()));
+
         BDDMockito.when(animeRepository.findAll())
                 .thenReturn(asList(createValidAnime()));
 
+        BDDMockito.when(animeRepository.streamAll())
+                .thenReturn(Stream.of(createValidAnime()));
+
         BDDMockito.when(animeRepository.findByName(anyString()))
                 .thenReturn(asList(createValidAnime()));
 
+        BDDMockito.when(animeRepository.findByNormalizedNameStartingWith(anyString(), any(PageRequest.class)))
+                .thenReturn(animePage);
+
+        BDDMockito.when(animeRepository.findByNormalizedNameContaining(anyString(), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(emptyList()));
+
         BDDMockito.when(animeRepository.save(any(Anime.class)))
                 .thenReturn(createValidAnime());
 
+        BDDMockito.when(animeRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BDDMockito.when(animeMapper.toAnimes(any(AnimeBatchPostRequestBody.class)))
+                .thenReturn(asList(createValidAnime(), createAnime()));
+
         BDDMockito.when(animeMapper.toAnime(any(AnimePostRequestBody.class)))
                 .thenReturn(createValidAnime());
 
@@ -64,18 +118,116 @@ class AnimeServiceTest {
                 .thenReturn(createValidAnime());
 
         BDDMockito.doNothing().when(animeRepository).delete(any(Anime.class));
+
+        BDDMockito.when(animeRepository.bulkDeleteByIds(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).size());
     }
 
     @Test
     @DisplayName("ListAll return list of anime inside page object when successful")
     void listAll_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
         String expectedName = createValidAnime().getName();
-        Page<Anime> animePage = animeService.listAll(PageRequest.of(1, 1));
+        Slice<Anime> animePage = animeService.listAll(PageRequest.of(1, 1), PageTotals.EXACT);
 
         assertThat(animePage.toList()).isNotEmpty().hasSize(1);
         assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAll with totals counts the animes when totals is null and the default is EXACT")
+    void listAll_ReturnsExactPage_WhenTotalsIsNull() {
+        Slice<Anime> animePage = animeService.listAll(PageRequest.of(0, 1), null);
+
+        assertThat(animePage).isInstanceOf(PageImpl.class).isNotInstanceOf(ApproximatePage.class);
+        BDDMockito.verify(animeRepository).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("listAll with totals return the cached total inside approximate page when totals is CACHED")
+    void listAll_ReturnsApproximatePageWithCachedTotal_WhenTotalsIsCached() {
+        Slice<Anime> animePage = animeService.listAll(PageRequest.of(0, 1), PageTotals.CACHED);
+
+        assertThat(animePage).isInstanceOf(ApproximatePage.class);
+        assertThat(((ApproximatePage<Anime>) animePage).getTotalElements()).isEqualTo(10L);
+        assertThat(((ApproximatePage<Anime>) animePage).isTotalExact()).isFalse();
+        BDDMockito.verify(animeRepository, Mockito.never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("listAll with totals return the estimated total inside approximate page when totals is ESTIMATED")
+    void listAll_ReturnsApproximatePageWithEstimatedTotal_WhenTotalsIsEstimated() {
+        Slice<Anime> animePage = animeService.listAll(PageRequest.of(0, 1), PageTotals.ESTIMATED);
+
+        assertThat(((ApproximatePage<Anime>) animePage).getTotalElements()).isEqualTo(12L);
+        BDDMockito.verify(animeRepository, Mockito.never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("listAll with totals keeps the next page and raises the total when the cached total is lower than the rows seen")
+    void listAll_KeepsNextPage_WhenCachedTotalIsStaleLow() {
+        BDDMockito.when(animeRepository.findAllBy(any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(asList(createValidAnime(), createAnime()), PageRequest.of(10, 2), true));
+        BDDMockito.when(animeTotalsService.cachedCount())
+                .thenReturn(10L);
+
+        ApproximatePage<Anime> animePage = (ApproximatePage<Anime>) animeService.listAll(PageRequest.of(10, 2), PageTotals.CACHED);
+
+        assertThat(animePage.hasNext()).isTrue();
+        assertThat(animePage.isLast()).isFalse();
+        assertThat(animePage.getTotalElements()).isEqualTo(23L);
+    }
+
+    @Test
+    @DisplayName("listAll with totals ends on the last slice and corrects the total when the estimated total is too high")
+    void listAll_EndsOnLastSlice_WhenEstimatedTotalIsTooHigh() {
+        BDDMockito.when(animeRepository.findAllBy(any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(asList(createValidAnime()), PageRequest.of(2, 2), false));
+
+        ApproximatePage<Anime> animePage = (ApproximatePage<Anime>) animeService.listAll(PageRequest.of(2, 2), PageTotals.ESTIMATED);
+
+        assertThat(animePage.hasNext()).isFalse();
+        assertThat(animePage.isLast()).isTrue();
+        assertThat(animePage.getTotalElements()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("listAll with totals return a slice without total when totals is NONE")
+    void listAll_ReturnsSlice_WhenTotalsIsNone() {
+        Slice<Anime> animeSlice = animeService.listAll(PageRequest.of(0, 1), PageTotals.NONE);
+
+        assertThat(animeSlice).isNotInstanceOf(Page.class);
+        assertThat(animeSlice.hasNext()).isTrue();
+        BDDMockito.verifyNoInteractions(animeTotalsService);
+    }
+
+    @Test
+    @DisplayName("listByCursor return first page with next cursor when there are more animes")
+    void listByCursor_ReturnsFirstPageWithNextCursor_WhenThereAreMoreAnimes() {
+        CursorPageResponse<Anime> animePage = animeService.listByCursor(null, 1, AnimeCursor.Sort.ID);
+
+        assertThat(animePage.getContent()).hasSize(1);
+        assertThat(animePage.isHasNext()).isTrue();
+        assertThat(AnimeCursor.decode(animePage.getNextCursor()).getId()).isEqualTo(createValidAnime().getId());
+    }
+
+    @Test
+    @DisplayName("listByCursor return last page without next cursor when cursor is sent")
+    void listByCursor_ReturnsLastPageWithoutNextCursor_WhenCursorIsSent() {
+        String cursor = AnimeCursor.after(createValidAnime(), AnimeCursor.Sort.ID).encode();
+        CursorPageResponse<Anime> animePage = animeService.listByCursor(cursor, 1, AnimeCursor.Sort.ID);
+
+        assertThat(animePage.getContent()).hasSize(1);
+        assertThat(animePage.isHasNext()).isFalse();
+        assertThat(animePage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("listByCursor throws BadRequestException when cursor is invalid")
+    void listByCursor_ThrowBadRequestException_WhenCursorIsInvalid() {
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.listByCursor("invalid", 1, AnimeCursor.Sort.ID));
+    }
+
     @Test
     @DisplayName("ListAllNonPageable return list of anime when successful")
     void listAllNonPageable_ReturnsListOfAnimes_WhenSuccessful() {
@@ -86,6 +238,16 @@ class AnimeServiceTest {
         assertThat(animeList.get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("streamAll send every anime to the consumer and detach it when successful")
+    void streamAll_SendsEveryAnimeToConsumerAndDetachesIt_WhenSuccessful() {
+        List<Anime> streamed = new ArrayList<>();
+        animeService.streamAll(streamed::add);
+
+        assertThat(streamed).containsExactly(createValidAnime());
+        BDDMockito.verify(entityManager).detach(createValidAnime());
+    }
+
     @Test
     @DisplayName("findByIdOrThrowBadRequestException return anime when successful")
     void findByIdOrThrowBadRequestException_ReturnsAnime_WhenSuccessful() {
@@ -127,6 +289,24 @@ class AnimeServiceTest {
         assertThat(animeList).isNotNull().isEmpty();
     }
 
+    @Test
+    @DisplayName("search return page of anime using the normalized name when mode is prefix")
+    void search_ReturnsPageOfAnimeUsingNormalizedName_WhenModeIsPrefix() {
+        Page<Anime> animePage = animeService.search(" Hajime ", AnimeSearchMode.PREFIX, PageRequest.of(0, 5));
+
+        assertThat(animePage.toList()).containsExactly(createValidAnime());
+        BDDMockito.verify(animeRepository).findByNormalizedNameStartingWith("hajime", PageRequest.of(0, 5));
+    }
+
+    @Test
+    @DisplayName("search use the contains query when mode is contains")
+    void search_UsesContainsQuery_WhenModeIsContains() {
+        Page<Anime> animePage = animeService.search("IPPO", AnimeSearchMode.CONTAINS, PageRequest.of(0, 5));
+
+        assertThat(animePage.toList()).isEmpty();
+        BDDMockito.verify(animeRepository).findByNormalizedNameContaining("ippo", PageRequest.of(0, 5));
+    }
+
     @Test
     @DisplayName("save return anime when successful")
     void save_ReturnsAnime_WhenSuccessful() {
@@ -135,6 +315,18 @@ class AnimeServiceTest {
         assertThat(anime).isEqualTo(createValidAnime());
     }
 
+    @Test
+    @DisplayName("saveAll return saved animes and clear the persistence context when successful")
+    void saveAll_ReturnsSavedAnimesAndClearsPersistenceContext_WhenSuccessful() {
+        List<Anime> animes = animeService.saveAll(AnimeBatchPostRequestBody.builder()
+                .animes(asList(createAnimePostRequestBody(), createAnimePostRequestBody()))
+                .build());
+
+        assertThat(animes).containsExactly(createValidAnime(), createAnime());
+        BDDMockito.verify(entityManager).flush();
+        BDDMockito.verify(entityManager).clear();
+    }
+
     @Test
     @DisplayName("replace return anime when successful")
     void replace_ReturnsAnime_WhenSuccessful() {
@@ -144,9 +336,119 @@ class AnimeServiceTest {
         assertThat(anime).isEqualTo(createValidAnime());
     }
 
+    @Test
+    @DisplayName("replace renames the loaded anime keeping its version when no version is sent")
+    void replace_RenamesLoadedAnime_WhenNoVersionIsSent() {
+        Anime savedAnime = createValidAnime();
+        savedAnime.setVersion(4L);
+        BDDMockito.when(animeRepository.findById(anyLong()))
+                .thenReturn(Optional.of(savedAnime));
+
+        Anime anime = animeService.replace(AnimePutRequestBody.builder().id(1L).name("Overlord").build());
+
+        assertThat(anime).isSameAs(savedAnime);
+        assertThat(anime.getName()).isEqualTo("Overlord");
+        assertThat(anime.getVersion()).isEqualTo(4L);
+        BDDMockito.verify(animeRepository, Mockito.never()).save(any(Anime.class));
+    }
+
+    @Test
+    @DisplayName("replace throws PreconditionFailedException when the version sent is not the current one")
+    void replace_ThrowsPreconditionFailedException_WhenVersionIsStale() {
+        Anime savedAnime = createValidAnime();
+        savedAnime.setVersion(4L);
+        BDDMockito.when(animeRepository.findById(anyLong()))
+                .thenReturn(Optional.of(savedAnime));
+
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBody.builder().id(1L).name("Overlord").version(3L).build()));
+        assertThat(savedAnime.getName()).isEqualTo(createValidAnime().getName());
+    }
+
+    @Test
+    @DisplayName("replace throws BadRequestException when anime is not found")
+    void replace_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replace(createAnimePutRequestBody()));
+    }
+
+    @Test
+    @DisplayName("patch updates the name without reading the anime when successful")
+    void patch_UpdatesName_WhenSuccessful() {
+        BDDMockito.when(animeRepository.updateName(anyLong(), anyString(), anyString()))
+                .thenReturn(1);
+
+        animeService.patch(1L, new AnimePatchRequestBody(" Overlord", null));
+
+        BDDMockito.verify(animeRepository).updateName(1L, " Overlord", "overlord");
+        BDDMockito.verify(animeRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("patch throws BadRequestException when no row is updated")
+    void patch_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepository.updateName(anyLong(), anyString(), anyString()))
+                .thenReturn(0);
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.patch(1L, new AnimePatchRequestBody("Overlord", null)));
+    }
+
+    @Test
+    @DisplayName("patch throws PreconditionFailedException when the anime exists with another version")
+    void patch_ThrowsPreconditionFailedException_WhenVersionIsStale() {
+        BDDMockito.when(animeRepository.updateNameIfVersion(anyLong(), anyString(), anyString(), anyLong()))
+                .thenReturn(0);
+        BDDMockito.when(animeRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> animeService.patch(1L, new AnimePatchRequestBody("Overlord", 3L)));
+    }
+
     @Test
     @DisplayName("Delete return anime when successful")
     void delete_ReturnsAnime_WhenSuccessful() {
         assertThatCode(() -> animeService.delete(1L)).doesNotThrowAnyException();
     }
+
+    @Test
+    @DisplayName("delete throws BadRequestException when no row is deleted")
+    void delete_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepository.bulkDeleteByIds(anyCollection()))
+                .thenReturn(0);
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.delete(1L));
+    }
+
+    @Test
+    @DisplayName("deleteAll deletes distinct ids in chunks and returns the number deleted when successful")
+    void deleteAll_DeletesDistinctIdsInChunks_WhenSuccessful() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+
+        int deleted = animeService.deleteAll(AnimeBulkDeleteRequestBody.builder().ids(ids).build());
+
+        assertThat(deleted).isEqualTo(2500);
+        BDDMockito.verify(animeRepository, Mockito.times(3)).bulkDeleteByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("deleteAll deletes by name when a name is sent")
+    void deleteAll_DeletesByName_WhenNameIsSent() {
+        BDDMockito.when(animeRepository.bulkDeleteByName(anyString()))
+                .thenReturn(2);
+
+        int deleted = animeService.deleteAll(AnimeBulkDeleteRequestBody.builder().name("Hajime no Ippo").build());
+
+        assertThat(deleted).isEqualTo(2);
+        BDDMockito.verify(animeRepository, Mockito.never()).bulkDeleteByIds(anyCollection());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.PageTotals;
+import academy.devdojo.springboot2.repository.AnimeRepository;
+import academy.devdojo.springboot2.repository.AnimeTableStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnimeTotalsServiceTest {
+    private AnimeRepository animeRepository;
+    private AnimeTableStatisticsRepository animeTableStatisticsRepository;
+    private AnimeTotalsService animeTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        animeRepository = Mockito.mock(AnimeRepository.class);
+        animeTableStatisticsRepository = Mockito.mock(AnimeTableStatisticsRepository.class);
+        animeTotalsService = new AnimeTotalsService(animeRepository, animeTableStatisticsRepository, PageTotals.ESTIMATED);
+
+        BDDMockito.when(animeRepository.count())
+                .thenReturn(42L);
+    }
+
+    @Test
+    @DisplayName("estimatedCount return the table statistics when the database has them")
+    void estimatedCount_ReturnsTableStatistics_WhenAvailable() {
+        BDDMockito.when(animeTableStatisticsRepository.estimatedRowCount())
+                .thenReturn(OptionalLong.of(40L));
+
+        assertThat(animeTotalsService.estimatedCount()).isEqualTo(40L);
+        BDDMockito.verify(animeRepository, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("estimatedCount counts the animes when the database has no table statistics")
+    void estimatedCount_CountsAnimes_WhenStatisticsAreNotAvailable() {
+        BDDMockito.when(animeTableStatisticsRepository.estimatedRowCount())
+                .thenReturn(OptionalLong.empty());
+
+        assertThat(animeTotalsService.estimatedCount()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("getDefaultTotals return the configured policy")
+    void getDefaultTotals_ReturnsConfiguredPolicy() {
+        assertThat(animeTotalsService.getDefaultTotals()).isEqualTo(PageTotals.ESTIMATED);
+    }
+}
@@ -0,0 +1,90 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.DevDojoUser;
+import academy.devdojo.springboot2.repository.DevDojoUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(SpringExtension.class)
+class DevDojoUserDetailsServiceTest {
+    @InjectMocks
+    private DevDojoUserDetailsService devDojoUserDetailsService;
+    @Mock
+    private DevDojoUserRepository devDojoUserRepository;
+    @Spy
+    private ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(devDojoUserRepository.findByUserName("douglas"))
+                .thenReturn(DevDojoUser.builder()
+                        .name("douglas")
+                        .userName("douglas")
+                        .authorities("ROLE_ADMIN, ROLE_USER")
+                        .build());
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername return user with trimmed authorities when successful")
+    void loadUserByUsername_ReturnsUserWithTrimmedAuthorities_WhenSuccessful() {
+        UserDetails userDetails = devDojoUserDetailsService.loadUserByUsername("douglas");
+
+        assertThat(userDetails.getUsername()).isEqualTo("douglas");
+        assertThat(AuthorityUtils.authorityListToSet(userDetails.getAuthorities()))
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("getAuthorities return the same immutable set until the authorities change")
+    void getAuthorities_ReturnsSameImmutableSet_UntilAuthoritiesChange() {
+        DevDojoUser user = (DevDojoUser) devDojoUserDetailsService.loadUserByUsername("douglas");
+
+        assertThat(user.getAuthorities()).isSameAs(user.getAuthorities());
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> user.getAuthorities().clear());
+
+        user.setAuthorities("ROLE_USER");
+
+        assertThat(AuthorityUtils.authorityListToSet(user.getAuthorities())).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername throws UsernameNotFoundException when user is not found")
+    void loadUserByUsername_ThrowUsernameNotFoundException_WhenUserIsNotFound() {
+        BDDMockito.when(devDojoUserRepository.findByUserName(anyString()))
+                .thenReturn(null);
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> devDojoUserDetailsService.loadUserByUsername("nobody"));
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername remembers an unknown user and doesn't query it again")
+    void loadUserByUsername_QueriesUnknownUserOnce_WhenLookedUpTwice() {
+        BDDMockito.when(devDojoUserRepository.findByUserName(anyString()))
+                .thenReturn(null);
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> devDojoUserDetailsService.loadUserByUsername("nobody"));
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> devDojoUserDetailsService.loadUserByUsername("nobody"));
+
+        BDDMockito.verify(devDojoUserRepository, times(1)).findByUserName("nobody");
+    }
+}
@@ -0,0 +1,213 @@
+package academy.devdojo.springboot2.service;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.BadRequestException;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
+import academy.devdojo.springboot2.mapper.AnimeMapper;
+import academy.devdojo.springboot2.repository.ReactiveAnimeRepository;
+import academy.devdojo.springboot2.requests.AnimePostRequestBody;
+import academy.devdojo.springboot2.requests.AnimePutRequestBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static academy.devdojo.springboot2.util.AnimeCreator.createValidAnime;
+import static academy.devdojo.springboot2.util.AnimePostRequestBodyCreator.createAnimePostRequestBody;
+import static academy.devdojo.springboot2.util.AnimePutRequestBodyCreator.createAnimePutRequestBody;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(SpringExtension.class)
+class ReactiveAnimeServiceTest {
+
+    @InjectMocks
+    private ReactiveAnimeService reactiveAnimeService;
+    @Mock
+    private ReactiveAnimeRepository reactiveAnimeRepository;
+    @Mock
+    private AnimeMapper animeMapper;
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(AnimeService.ANIME_CACHE,
+            AnimeTotalsService.ANIME_TOTALS_CACHE);
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(reactiveAnimeRepository.findAll(any(PageRequest.class)))
+                .thenReturn(Flux.just(createValidAnime()));
+        BDDMockito.when(reactiveAnimeRepository.count())
+                .thenReturn(Mono.just(1L));
+        BDDMockito.when(reactiveAnimeRepository.findAll())
+                .thenReturn(Flux.just(createValidAnime()));
+        BDDMockito.when(reactiveAnimeRepository.findById(anyLong()))
+                .thenReturn(Mono.just(createValidAnime()));
+        BDDMockito.when(reactiveAnimeRepository.findByName(anyString()))
+                .thenReturn(Flux.just(createValidAnime()));
+        BDDMockito.when(reactiveAnimeRepository.save(any(Anime.class)))
+                .thenReturn(Mono.just(createValidAnime()));
+        BDDMockito.when(reactiveAnimeRepository.update(any(Anime.class)))
+                .thenReturn(Mono.just(1));
+        BDDMockito.when(reactiveAnimeRepository.deleteById(anyLong()))
+                .thenReturn(Mono.just(1));
+        BDDMockito.when(animeMapper.toAnime(any(AnimePostRequestBody.class)))
+                .thenReturn(createValidAnime());
+        BDDMockito.when(animeMapper.toAnime(any(AnimePutRequestBody.class)))
+                .thenReturn(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("listAll returns page with the total from count when successful")
+    void listAll_ReturnsPageWithTotal_WhenSuccessful() {
+        Page<Anime> animePage = reactiveAnimeService.listAll(PageRequest.of(0, 1)).block();
+
+        assertThat(animePage).isNotNull();
+        assertThat(animePage.getContent()).containsExactly(createValidAnime());
+        assertThat(animePage.getTotalElements()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("listAllNonPageable returns all animes when successful")
+    void listAllNonPageable_ReturnsAllAnimes_WhenSuccessful() {
+        assertThat(reactiveAnimeService.listAllNonPageable().collectList().block())
+                .containsExactly(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("findByName returns animes with the name when successful")
+    void findByName_ReturnsAnimes_WhenSuccessful() {
+        assertThat(reactiveAnimeService.findByName("Hajime no Ippo").collectList().block())
+                .containsExactly(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns anime when successful")
+    void findByIdOrThrowBadRequestException_ReturnsAnime_WhenSuccessful() {
+        assertThat(reactiveAnimeService.findByIdOrThrowBadRequestException(1).block())
+                .isEqualTo(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException signals BadRequestException when anime is not found")
+    void findByIdOrThrowBadRequestException_SignalsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(reactiveAnimeRepository.findById(anyLong()))
+                .thenReturn(Mono.empty());
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> reactiveAnimeService.findByIdOrThrowBadRequestException(1).block());
+    }
+
+    @Test
+    @DisplayName("save returns anime when successful")
+    void save_ReturnsAnime_WhenSuccessful() {
+        assertThat(reactiveAnimeService.save(createAnimePostRequestBody()).block())
+                .isEqualTo(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("save puts the anime in the cache and evicts the totals when successful")
+    void save_PutsAnimeInCacheAndEvictsTotals_WhenSuccessful() {
+        cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).put("count", 10L);
+
+        reactiveAnimeService.save(createAnimePostRequestBody()).block();
+
+        assertThat(cacheManager.getCache(AnimeService.ANIME_CACHE).get(1L, Anime.class)).isEqualTo(createValidAnime());
+        assertThat(cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).get("count")).isNull();
+    }
+
+    @Test
+    @DisplayName("replace returns updated anime when successful")
+    void replace_ReturnsUpdatedAnime_WhenSuccessful() {
+        assertThat(reactiveAnimeService.replace(createAnimePutRequestBody()).block())
+                .isEqualTo(createValidAnime());
+    }
+
+    @Test
+    @DisplayName("replace signals BadRequestException when anime is not found")
+    void replace_SignalsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(reactiveAnimeRepository.update(any(Anime.class)))
+                .thenReturn(Mono.just(0));
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> reactiveAnimeService.replace(createAnimePutRequestBody()).block());
+    }
+
+    @Test
+    @DisplayName("replace evicts the anime from the cache when successful")
+    void replace_EvictsAnimeFromCache_WhenSuccessful() {
+        cacheManager.getCache(AnimeService.ANIME_CACHE).put(1L, createValidAnime());
+
+        reactiveAnimeService.replace(createAnimePutRequestBody()).block();
+
+        assertThat(cacheManager.getCache(AnimeService.ANIME_CACHE).get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("replace signals PreconditionFailedException when the version is stale")
+    void replace_SignalsPreconditionFailedException_WhenVersionIsStale() {
+        Anime staleAnime = createValidAnime();
+        staleAnime.setVersion(0L);
+        BDDMockito.when(animeMapper.toAnime(any(AnimePutRequestBody.class)))
+                .thenReturn(staleAnime);
+        BDDMockito.when(reactiveAnimeRepository.update(any(Anime.class)))
+                .thenReturn(Mono.just(0));
+
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> reactiveAnimeService.replace(createAnimePutRequestBody()).block());
+    }
+
+    @Test
+    @DisplayName("replace signals BadRequestException when a version was sent and anime is not found")
+    void replace_SignalsBadRequestException_WhenVersionWasSentAndAnimeIsNotFound() {
+        Anime anime = createValidAnime();
+        anime.setVersion(0L);
+        BDDMockito.when(animeMapper.toAnime(any(AnimePutRequestBody.class)))
+                .thenReturn(anime);
+        BDDMockito.when(reactiveAnimeRepository.update(any(Anime.class)))
+                .thenReturn(Mono.just(0));
+        BDDMockito.when(reactiveAnimeRepository.findById(anyLong()))
+                .thenReturn(Mono.empty());
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> reactiveAnimeService.replace(createAnimePutRequestBody()).block());
+    }
+
+    @Test
+    @DisplayName("delete completes and evicts the anime and the totals when successful")
+    void delete_Completes_WhenSuccessful() {
+        cacheManager.getCache(AnimeService.ANIME_CACHE).put(1L, createValidAnime());
+        cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).put("count", 10L);
+
+        reactiveAnimeService.delete(1).block();
+
+        BDDMockito.verify(reactiveAnimeRepository).deleteById(1L);
+        assertThat(cacheManager.getCache(AnimeService.ANIME_CACHE).get(1L)).isNull();
+        assertThat(cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).get("count")).isNull();
+    }
+
+    @Test
+    @DisplayName("delete throws BadRequestException and keeps the totals when the anime is not found")
+    void delete_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(reactiveAnimeRepository.deleteById(anyLong()))
+                .thenReturn(Mono.just(0));
+        cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).put("count", 10L);
+
+        assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> reactiveAnimeService.delete(1).block());
+
+        assertThat(cacheManager.getCache(AnimeTotalsService.ANIME_TOTALS_CACHE).get("count")).isNotNull();
+    }
+}
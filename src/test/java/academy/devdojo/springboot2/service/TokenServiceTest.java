@@ -0,0 +1,68 @@
+package academy.devdojo.springboot2.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class TokenServiceTest {
+    private static final String SECRET = "a-secret-with-at-least-thirty-two-bytes";
+    private static final Instant NOW = Instant.parse("2021-01-01T00:00:00Z");
+
+    private final TokenService tokenService = new TokenService(SECRET, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("douglas", "douglas",
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+
+    @Test
+    @DisplayName("parseToken return the authentication with authorities when token is valid")
+    void parseToken_ReturnsAuthenticationWithAuthorities_WhenTokenIsValid() {
+        Optional<Authentication> parsed = tokenService.parseToken(tokenService.createToken(authentication));
+
+        assertThat(parsed).isPresent();
+        assertThat(parsed.get()).isInstanceOf(PreAuthenticatedAuthenticationToken.class);
+        assertThat(parsed.get().isAuthenticated()).isTrue();
+        assertThat(parsed.get().getName()).isEqualTo("douglas");
+        assertThat(parsed.get().getCredentials()).isNull();
+        assertThat(AuthorityUtils.authorityListToSet(parsed.get().getAuthorities())).containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("parseToken return empty when token signature was changed")
+    void parseToken_ReturnsEmpty_WhenTokenSignatureWasChanged() {
+        String token = tokenService.createToken(authentication);
+        String otherSignature = new TokenService(SECRET.toUpperCase(), Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC))
+                .createToken(authentication);
+        String forged = token.substring(0, token.indexOf('.')) + otherSignature.substring(otherSignature.indexOf('.'));
+
+        assertThat(tokenService.parseToken(forged)).isEmpty();
+        assertThat(tokenService.parseToken("not a token")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("parseToken return empty when token is expired")
+    void parseToken_ReturnsEmpty_WhenTokenIsExpired() {
+        String token = tokenService.createToken(authentication);
+        TokenService later = new TokenService(SECRET, Duration.ofMinutes(15),
+                Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertThat(later.parseToken(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("TokenService throws IllegalStateException when secret is too short")
+    void tokenService_ThrowIllegalStateException_WhenSecretIsTooShort() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new TokenService("short", Duration.ofMinutes(15)));
+    }
+}
@@ -0,0 +1,49 @@
+package academy.devdojo.springboot2.util;
+
+import academy.devdojo.springboot2.domain.Anime;
+import academy.devdojo.springboot2.exception.PreconditionFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AnimeETagTest {
+
+    @Test
+    @DisplayName("of page changes with the page request and the total when the content is the same")
+    void ofPage_Changes_WhenPageRequestOrTotalChanges() {
+        Anime anime = createVersionedAnime();
+        String eTag = AnimeETag.of(new PageImpl<>(singletonList(anime), PageRequest.of(0, 1), 2));
+
+        assertThat(eTag).startsWith("W/\"").endsWith("\"")
+                .isEqualTo(AnimeETag.of(new PageImpl<>(singletonList(createVersionedAnime()), PageRequest.of(0, 1), 2)))
+                .isNotEqualTo(AnimeETag.of(new PageImpl<>(singletonList(anime), PageRequest.of(0, 1), 3)))
+                .isNotEqualTo(AnimeETag.of(new PageImpl<>(singletonList(anime), PageRequest.of(1, 1), 2)));
+    }
+
+    @Test
+    @DisplayName("expectedVersion returns the version of a strong ETag and null for any")
+    void expectedVersion_ReturnsVersion_WhenIfMatchIsValid() {
+        assertThat(AnimeETag.expectedVersion(AnimeETag.of(createVersionedAnime()), 1L)).isEqualTo(7L);
+        assertThat(AnimeETag.expectedVersion("*", 1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("expectedVersion throws PreconditionFailedException when If-Match is weak or malformed")
+    void expectedVersion_ThrowsPreconditionFailedException_WhenIfMatchIsInvalid() {
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> AnimeETag.expectedVersion("W/\"1-7\"", 1L));
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> AnimeETag.expectedVersion("\"1-\"", 1L));
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> AnimeETag.expectedVersion("\"1-x\"", 1L));
+    }
+
+    private static Anime createVersionedAnime() {
+        return Anime.builder().id(1L).name("Hajime no Ippo").version(7L).build();
+    }
+}
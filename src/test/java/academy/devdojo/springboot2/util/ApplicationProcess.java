@@ -0,0 +1,126 @@
+package academy.devdojo.springboot2.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The application launched in its own process on a free port, for the tests measuring it from the outside
+ * (StartupBenchmark, NativeImageSmokeIT). Requests are sent as devdojo with the in-memory users' password.
+ */
+public final class ApplicationProcess implements AutoCloseable {
+    public static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("devdojo:douglas".getBytes(StandardCharsets.UTF_8));
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Process process;
+    private final int port;
+    private final long launchedAt;
+
+    private ApplicationProcess(Process process, int port, long launchedAt) {
+        this.process = process;
+        this.port = port;
+        this.launchedAt = launchedAt;
+    }
+
+    /**
+     * @param output receives every line the application writes, the output is discarded when null
+     * @param command the command line, --server.port is added to it
+     */
+    public static ApplicationProcess start(File directory, Consumer<String> output, String... command) throws IOException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(Arrays.asList(command));
+        arguments.add("--server.port=" + port);
+        ProcessBuilder processBuilder = new ProcessBuilder(arguments).directory(directory).redirectErrorStream(true);
+        if (output == null) {
+            processBuilder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        }
+        long launchedAt = System.nanoTime();
+        Process process = processBuilder.start();
+        if (output != null) {
+            readOutput(process, output);
+        }
+        return new ApplicationProcess(process, port, launchedAt);
+    }
+
+    /**
+     * @return milliseconds from the launch to the first 200 answered to GET path
+     */
+    public long waitForFirstRequest(String path) throws IOException, InterruptedException {
+        long deadline = launchedAt + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("the application exited with " + process.exitValue());
+            }
+            try {
+                if (send(get(path)).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchedAt);
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("no successful request in " + TIMEOUT);
+    }
+
+    public HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.header("Authorization", AUTHORIZATION).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+
+    public HttpRequest.Builder post(String path, String json) {
+        return get(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    public long pid() {
+        return process.pid();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        process.waitFor(30, TimeUnit.SECONDS);
+    }
+
+    private static void readOutput(Process process, Consumer<String> output) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    output.accept(line);
+                }
+            } catch (IOException e) {
+                // the process was destroyed
+            }
+        }, "application-process-output");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package academy.devdojo.springboot2.util;
+
+import academy.devdojo.springboot2.filter.SqlStatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * SqlStatementCounter that also keeps the statements of every counted block, so tests can assert the SQL of
+ * each request: StatementBudgetFilter counts a block per request, authentication included. Import {@link Config}
+ * to make it the Hibernate statement inspector. Only statements prepared by Hibernate on the
+ * request thread are seen, not JdbcTemplate ones.
+ */
+public class SqlStatementRecorder extends SqlStatementCounter {
+    private final List<List<String>> blocks = new CopyOnWriteArrayList<>();
+
+    public void clear() {
+        blocks.clear();
+    }
+
+    /**
+     * @return the statements of each block counted since {@link #clear()}, in the order the blocks started
+     */
+    public List<List<String>> recordedBlocks() {
+        List<List<String>> recorded = new ArrayList<>();
+        blocks.forEach(block -> recorded.add(new ArrayList<>(block)));
+        return recorded;
+    }
+
+    /**
+     * Kept when the block starts: the response can reach the client before the filter stops counting.
+     */
+    @Override
+    protected List<String> newStatements() {
+        List<String> statements = new CopyOnWriteArrayList<>();
+        blocks.add(statements);
+        return statements;
+    }
+
+    @TestConfiguration
+    public static class Config {
+        @Bean
+        @Primary
+        public SqlStatementRecorder sqlStatementRecorder() {
+            return new SqlStatementRecorder();
+        }
+
+        /**
+         * For the slices without SqlMetricsConfig, in a full context both customizers set the recorder.
+         */
+        @Bean
+        public HibernatePropertiesCustomizer sqlStatementRecorderCustomizer(SqlStatementRecorder sqlStatementRecorder) {
+            return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementRecorder);
+        }
+    }
+}
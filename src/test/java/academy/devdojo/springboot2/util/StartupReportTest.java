@@ -0,0 +1,43 @@
+package academy.devdojo.springboot2.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupReportTest {
+
+    @Test
+    @DisplayName("heaviestBeans orders the beans by their own time, excluding the beans they depend on")
+    void heaviestBeans_OrdersBeansBySelfTime_WhenBeansAreNested() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+        StartupStep service = startup.start("spring.beans.instantiate").tag("beanName", "animeService");
+        StartupStep repository = startup.start("spring.beans.instantiate").tag("beanName", "animeRepository");
+        Thread.sleep(200);
+        repository.end();
+        Thread.sleep(20);
+        service.end();
+        startup.start("spring.context.refresh").end();
+
+        List<StartupReport.BeanTime> beans = StartupReport.heaviestBeans(startup.getBufferedTimeline().getEvents(), 10);
+
+        assertThat(beans).extracting(StartupReport.BeanTime::getName).containsExactly("animeRepository", "animeService");
+        assertThat(beans.get(0).getSelfTime().toMillis()).isGreaterThanOrEqualTo(200);
+        assertThat(beans.get(1).getSelfTime().toMillis()).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("heaviestBeans returns at most the limit when there are more beans")
+    void heaviestBeans_ReturnsAtMostLimit_WhenThereAreMoreBeans() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+        for (int i = 0; i < 5; i++) {
+            startup.start("spring.beans.instantiate").tag("beanName", "bean" + i).end();
+        }
+
+        assertThat(StartupReport.heaviestBeans(startup.getBufferedTimeline().getEvents(), 3)).hasSize(3);
+    }
+}